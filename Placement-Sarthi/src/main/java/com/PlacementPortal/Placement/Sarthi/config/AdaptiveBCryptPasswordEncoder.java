@@ -0,0 +1,88 @@
+package com.PlacementPortal.Placement.Sarthi.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Arrays;
+
+/**
+ * BCrypt encoder whose cost is measured on the host at startup: the highest cost between min and max
+ * whose verification stays within the target latency. Hashes of any other cost report
+ * upgradeEncoding() = true, so the next successful login re-hashes them at the calibrated cost
+ * (up or down, unlike the stock encoder, which only upgrades).
+ */
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveBCryptPasswordEncoder.class);
+
+    private static final int SAMPLES = 3;
+
+    private final int strength;
+
+    public AdaptiveBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    public static AdaptiveBCryptPasswordEncoder calibrated(int minStrength, int maxStrength, long targetMillis) {
+        int chosen = minStrength;
+        double chosenMillis = 0;
+
+        for (int cost = minStrength; cost <= maxStrength; cost++) {
+            double millis = medianVerifyMillis(new BCryptPasswordEncoder(cost));
+            if (cost > minStrength && millis > targetMillis) {
+                break;
+            }
+            chosen = cost;
+            chosenMillis = millis;
+            // Each step doubles the work, so the next cost cannot fit
+            if (millis * 2 > targetMillis) {
+                break;
+            }
+        }
+
+        logger.info("BCrypt cost calibrated to {} ({} ms per verification, target {} ms)",
+                chosen, String.format("%.1f", chosenMillis), targetMillis);
+        return new AdaptiveBCryptPasswordEncoder(chosen);
+    }
+
+    private static double medianVerifyMillis(BCryptPasswordEncoder encoder) {
+        String hash = encoder.encode("calibration-sample");
+        encoder.matches("calibration-sample", hash); // warm-up
+
+        long[] nanos = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.matches("calibration-sample", hash);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[SAMPLES / 2] / 1_000_000.0;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        Integer cost = costOf(encodedPassword);
+        return cost != null && cost != strength;
+    }
+
+    // $2a$10$... -> 10; null for anything that is not a BCrypt hash
+    static Integer costOf(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$'
+                || encodedPassword.charAt(3) != '$' || encodedPassword.charAt(6) != '$') {
+            return null;
+        }
+        char tens = encodedPassword.charAt(4);
+        char units = encodedPassword.charAt(5);
+        // Two ASCII digits; Integer.parseInt would also take "+1" or non-Latin digits
+        if (tens < '0' || tens > '9' || units < '0' || units > '9') {
+            return null;
+        }
+        return (tens - '0') * 10 + (units - '0');
+    }
+}
@@ -0,0 +1,309 @@
+package com.PlacementPortal.Placement.Sarthi.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.mongodb.client.model.Filters;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * HTTP sessions stored in the http_sessions collection, so any node can serve any request and a
+ * restart logs nobody out. A TTL index on lastAccessedAt equal to the session timeout lets MongoDB
+ * delete abandoned sessions. Reads go through a small near-cache with a TTL of a few seconds, and a
+ * request that only touches the session is written back at most once per touch interval.
+ *
+ * Trade-offs: another node sees a login or logout up to one near-cache TTL late, and an idle
+ * session may expire up to one touch interval before the full timeout. A session whose document
+ * was deleted (logout or expiry elsewhere) is never written back.
+ */
+public class MongoSessionRepository implements SessionRepository<MongoSessionRepository.MongoSession> {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoSessionRepository.class);
+
+    public static final String COLLECTION = "http_sessions";
+
+    private static final String TTL_INDEX = "lastAccessedAt_ttl";
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration maxInactiveInterval;
+    private final Duration touchInterval;
+    private final Duration nearCacheTtl;
+    private final Cache<String, CachedSession> nearCache;
+
+    private final SerializingConverter serializer = new SerializingConverter();
+    private final DeserializingConverter deserializer = new DeserializingConverter(getClass().getClassLoader());
+
+    /*
+     * A session as last seen by this node, the lastAccessedAt actually stored in MongoDB, and when this
+     * node last read or wrote the document. Only syncedAt bounds staleness: touch-only saves re-put the
+     * entry without hitting MongoDB, so Caffeine's own write expiry alone would never run out.
+     */
+    private record CachedSession(MapSession session, Instant persistedLastAccessed, Instant syncedAt) {
+    }
+
+    public MongoSessionRepository(MongoTemplate mongoTemplate, Duration maxInactiveInterval, Duration touchInterval,
+                                  Duration nearCacheTtl, long nearCacheSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxInactiveInterval = maxInactiveInterval;
+        this.touchInterval = touchInterval;
+        this.nearCacheTtl = nearCacheTtl;
+        this.nearCache = Caffeine.newBuilder()
+                .maximumSize(nearCacheSize)
+                .expireAfterWrite(nearCacheTtl)
+                .recordStats()
+                .build();
+    }
+
+    // (Re)creates the TTL index when the configured timeout changed since it was built
+    public void ensureIndexes() {
+        Index ttlIndex = new Index().on("lastAccessedAt", Sort.Direction.ASC).named(TTL_INDEX).expire(maxInactiveInterval);
+        try {
+            mongoTemplate.indexOps(COLLECTION).ensureIndex(ttlIndex);
+        } catch (Exception e) {
+            logger.info("Rebuilding session TTL index for a timeout of {}", maxInactiveInterval);
+            mongoTemplate.indexOps(COLLECTION).dropIndex(TTL_INDEX);
+            mongoTemplate.indexOps(COLLECTION).ensureIndex(ttlIndex);
+        }
+    }
+
+    @Override
+    public MongoSession createSession() {
+        MapSession session = new MapSession();
+        session.setMaxInactiveInterval(maxInactiveInterval);
+        return new MongoSession(session, null, null, null);
+    }
+
+    @Override
+    public void save(MongoSession session) {
+        String id = session.getId();
+        Instant persisted = session.persistedLastAccessed;
+        Instant syncedAt = session.syncedAt;
+        boolean stillStored = true;
+
+        if (persisted == null) {
+            // Brand-new session
+            mongoTemplate.insert(toDocument(session.delegate), COLLECTION);
+            persisted = session.getLastAccessedTime();
+            syncedAt = Instant.now();
+        } else if (!session.originalId.equals(id)) {
+            // Session id changed: move the document, unless it was deleted meanwhile
+            nearCache.invalidate(session.originalId);
+            stillStored = mongoTemplate.remove(new Query(Criteria.where("_id").is(session.originalId)), COLLECTION)
+                    .getDeletedCount() > 0;
+            if (stillStored) {
+                mongoTemplate.insert(toDocument(session.delegate), COLLECTION);
+                persisted = session.getLastAccessedTime();
+                syncedAt = Instant.now();
+            }
+        } else if (session.changed) {
+            // Replace without upsert, so a session logged out on another node is not recreated
+            stillStored = mongoTemplate.getCollection(COLLECTION)
+                    .replaceOne(Filters.eq("_id", id), toDocument(session.delegate))
+                    .getMatchedCount() > 0;
+            persisted = session.getLastAccessedTime();
+            syncedAt = Instant.now();
+        } else if (Duration.between(persisted, session.getLastAccessedTime()).compareTo(touchInterval) >= 0) {
+            stillStored = mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(id)),
+                    new Update().set("lastAccessedAt", Date.from(session.getLastAccessedTime())), COLLECTION)
+                    .getMatchedCount() > 0;
+            persisted = session.getLastAccessedTime();
+            syncedAt = Instant.now();
+        }
+
+        if (!stillStored) {
+            nearCache.invalidate(id);
+            return;
+        }
+        session.markSaved(persisted, syncedAt);
+        nearCache.put(id, new CachedSession(new MapSession(session.delegate), persisted, syncedAt));
+    }
+
+    @Override
+    public MongoSession findById(String id) {
+        CachedSession cached = nearCache.getIfPresent(id);
+        if (cached != null && cached.syncedAt().plus(nearCacheTtl).isBefore(Instant.now())) {
+            cached = null;
+        }
+        if (cached == null) {
+            cached = load(id);
+            if (cached == null) {
+                return null;
+            }
+            nearCache.put(id, cached);
+        }
+
+        if (cached.session().isExpired()) {
+            deleteById(id);
+            return null;
+        }
+        return new MongoSession(new MapSession(cached.session()), id, cached.persistedLastAccessed(), cached.syncedAt());
+    }
+
+    @Override
+    public void deleteById(String id) {
+        nearCache.invalidate(id);
+        mongoTemplate.remove(new Query(Criteria.where("_id").is(id)), COLLECTION);
+    }
+
+    public Map<String, Object> getCacheStats() {
+        CacheStats stats = nearCache.stats();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRatio", stats.hitRate());
+        result.put("size", nearCache.estimatedSize());
+        return result;
+    }
+
+    private CachedSession load(String id) {
+        Document document = mongoTemplate.findById(id, Document.class, COLLECTION);
+        if (document == null) {
+            return null;
+        }
+
+        MapSession session = new MapSession(id);
+        session.setCreationTime(document.getDate("createdAt").toInstant());
+        session.setLastAccessedTime(document.getDate("lastAccessedAt").toInstant());
+        session.setMaxInactiveInterval(Duration.ofSeconds(document.get("maxInactiveSeconds", Number.class).longValue()));
+
+        try {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> attributes = (Map<String, Object>) deserializer.convert(document.get("attributes", Binary.class).getData());
+            attributes.forEach(session::setAttribute);
+        } catch (Exception e) {
+            // e.g. a class changed shape since the session was written; the user simply logs in again
+            logger.debug("Discarding unreadable session {}: {}", id, e.getMessage());
+            deleteById(id);
+            return null;
+        }
+
+        return new CachedSession(session, session.getLastAccessedTime(), Instant.now());
+    }
+
+    private Document toDocument(MapSession session) {
+        Map<String, Object> attributes = new HashMap<>();
+        for (String name : session.getAttributeNames()) {
+            attributes.put(name, session.getAttribute(name));
+        }
+
+        return new Document("_id", session.getId())
+                .append("createdAt", Date.from(session.getCreationTime()))
+                .append("lastAccessedAt", Date.from(session.getLastAccessedTime()))
+                .append("maxInactiveSeconds", session.getMaxInactiveInterval().getSeconds())
+                .append("attributes", new Binary(serializer.convert(attributes)));
+    }
+
+    /**
+     * MapSession that remembers whether anything but the access time changed since it was loaded,
+     * so plain page views do not rewrite the whole document.
+     */
+    public static final class MongoSession implements Session {
+
+        private final MapSession delegate;
+        private String originalId;
+        private Instant persistedLastAccessed;
+        private Instant syncedAt;
+        private boolean changed;
+
+        private MongoSession(MapSession delegate, String originalId, Instant persistedLastAccessed, Instant syncedAt) {
+            this.delegate = delegate;
+            this.originalId = originalId;
+            this.persistedLastAccessed = persistedLastAccessed;
+            this.syncedAt = syncedAt;
+        }
+
+        private void markSaved(Instant persistedLastAccessed, Instant syncedAt) {
+            this.originalId = delegate.getId();
+            this.persistedLastAccessed = persistedLastAccessed;
+            this.syncedAt = syncedAt;
+            this.changed = false;
+        }
+
+        @Override
+        public String getId() {
+            return delegate.getId();
+        }
+
+        @Override
+        public String changeSessionId() {
+            changed = true;
+            return delegate.changeSessionId();
+        }
+
+        @Override
+        public <T> T getAttribute(String attributeName) {
+            return delegate.getAttribute(attributeName);
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return delegate.getAttributeNames();
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            changed = true;
+            delegate.setAttribute(attributeName, attributeValue);
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            changed = true;
+            delegate.removeAttribute(attributeName);
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return delegate.getCreationTime();
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            delegate.setLastAccessedTime(lastAccessedTime);
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return delegate.getLastAccessedTime();
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            changed = true;
+            delegate.setMaxInactiveInterval(interval);
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return delegate.getMaxInactiveInterval();
+        }
+
+        @Override
+        public boolean isExpired() {
+            return delegate.isExpired();
+        }
+    }
+}
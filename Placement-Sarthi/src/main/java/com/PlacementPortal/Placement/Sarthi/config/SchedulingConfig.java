@@ -0,0 +1,10 @@
+package com.PlacementPortal.Placement.Sarthi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Background flushers (e.g. LastLoginTracker) run on the default single-threaded scheduler
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -3,6 +3,7 @@ package com.PlacementPortal.Placement.Sarthi.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.MediaType;
@@ -12,7 +13,6 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import com.PlacementPortal.Placement.Sarthi.service.CustomUserDetailsService;
@@ -26,9 +26,25 @@ public class SecurityConfig {
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    // A fixed cost (> 0) skips calibration; pin it when several nodes share one database
+    @Value("${security.bcrypt.strength:0}")
+    private int bcryptStrength;
+
+    @Value("${security.bcrypt.min-strength:10}")
+    private int bcryptMinStrength;
+
+    @Value("${security.bcrypt.max-strength:14}")
+    private int bcryptMaxStrength;
+
+    @Value("${security.bcrypt.target-millis:250}")
+    private long bcryptTargetMillis;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        if (bcryptStrength > 0) {
+            return new AdaptiveBCryptPasswordEncoder(bcryptStrength);
+        }
+        return AdaptiveBCryptPasswordEncoder.calibrated(bcryptMinStrength, bcryptMaxStrength, bcryptTargetMillis);
     }
 
     @Bean
@@ -36,6 +52,8 @@ public class SecurityConfig {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService);
         provider.setPasswordEncoder(passwordEncoder());
+        // Re-hashes at the calibrated cost after a successful login when upgradeEncoding() says so
+        provider.setUserDetailsPasswordService(userDetailsService);
         return provider;
     }
 
@@ -65,6 +83,9 @@ public class SecurityConfig {
                         // PUBLIC: Contact form
                         .requestMatchers("/api/messages/contact").permitAll()
 
+                        // ADMIN: Global search results expose student and HR contact details
+                        .requestMatchers("/api/search/**").hasRole("ADMIN")
+
                         // PROTECTED: All other API endpoints need authentication
                         .requestMatchers("/api/**").authenticated()
                         .requestMatchers("/api/reports/**").authenticated()
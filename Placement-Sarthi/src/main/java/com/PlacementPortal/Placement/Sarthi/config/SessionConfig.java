@@ -0,0 +1,49 @@
+package com.PlacementPortal.Placement.Sarthi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+import org.springframework.session.web.http.CookieSerializer;
+import org.springframework.session.web.http.DefaultCookieSerializer;
+
+import java.time.Duration;
+
+// Replaces the container's in-memory HttpSession with MongoSessionRepository; session.store.mongo=false falls back
+@Configuration
+@EnableSpringHttpSession
+@ConditionalOnProperty(name = "session.store.mongo", havingValue = "true")
+public class SessionConfig {
+
+    @Value("${server.servlet.session.timeout:30m}")
+    private Duration sessionTimeout;
+
+    @Value("${session.store.touch-interval:60s}")
+    private Duration touchInterval;
+
+    @Value("${session.store.near-cache-ttl:5s}")
+    private Duration nearCacheTtl;
+
+    @Value("${session.store.near-cache-size:10000}")
+    private long nearCacheSize;
+
+    @Bean
+    public MongoSessionRepository sessionRepository(MongoTemplate mongoTemplate) {
+        MongoSessionRepository repository = new MongoSessionRepository(mongoTemplate, sessionTimeout, touchInterval,
+                nearCacheTtl, nearCacheSize);
+        repository.ensureIndexes();
+        return repository;
+    }
+
+    // Same cookie the frontend and the logout handler already use
+    @Bean
+    public CookieSerializer cookieSerializer() {
+        DefaultCookieSerializer serializer = new DefaultCookieSerializer();
+        serializer.setCookieName("JSESSIONID");
+        serializer.setUseBase64Encoding(false);
+        serializer.setUseHttpOnlyCookie(true);
+        return serializer;
+    }
+}
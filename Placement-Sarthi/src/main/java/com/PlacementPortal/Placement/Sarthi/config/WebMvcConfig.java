@@ -0,0 +1,19 @@
+package com.PlacementPortal.Placement.Sarthi.config;
+
+import com.PlacementPortal.Placement.Sarthi.controller.LoginSessionInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private LoginSessionInterceptor loginSessionInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(loginSessionInterceptor).addPathPatterns("/api/login");
+    }
+}
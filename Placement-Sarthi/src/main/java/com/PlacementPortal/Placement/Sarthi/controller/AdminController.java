@@ -28,9 +28,17 @@ public class AdminController {
         return ResponseEntity.ok(createdAdmin);
     }
 
+    // One keyset page, of pagination.default-page-size when no limit is given; nextCursor fetches the next one
     @GetMapping
-    public ResponseEntity<List<Admin>> getAllAdmins() {
-        return ResponseEntity.ok(adminService.getAllAdmins());
+    public ResponseEntity<?> getAllAdmins(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            return ResponseEntity.ok(adminService.getAdminsPage(cursor, limit, includeTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
     }
 
     @GetMapping("/email/{email}")
@@ -1,26 +1,23 @@
 package com.PlacementPortal.Placement.Sarthi.controller;
 
 import com.PlacementPortal.Placement.Sarthi.entity.Event;
-import com.PlacementPortal.Placement.Sarthi.entity.Participation;
 import com.PlacementPortal.Placement.Sarthi.entity.Participation.ParticipationStatus;
 import com.PlacementPortal.Placement.Sarthi.repository.EventRepository;
-import com.PlacementPortal.Placement.Sarthi.repository.ParticipationRepository;
+import com.PlacementPortal.Placement.Sarthi.service.BulkOperationsService;
 import org.apache.poi.ss.usermodel.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/bulk-operations")
 public class BulkOperationsController {
 
     @Autowired
-    private ParticipationRepository participationRepository;
+    private BulkOperationsService bulkOperationsService;
 
     @Autowired
     private EventRepository eventRepository;
@@ -107,67 +104,22 @@ public class BulkOperationsController {
                 return ResponseEntity.status(400).body(response);
             }
 
-            // Get all current participations for this event
-            List<Participation> allParticipations = participationRepository.findByEventId(eventId);
-            Set<String> allRegistered = allParticipations.stream()
-                    .map(Participation::getStudentAdmissionNumber)
-                    .collect(Collectors.toSet());
-
-            Set<String> movingForward = new HashSet<>(studentAdmissionNumbers);
-
-            int updatedCount = 0;
-            int rejectedCount = 0;
-
-            // Mark students in the list as ATTEMPTED (OA sent)
-            for (Participation p : allParticipations) {
-                String admNo = p.getStudentAdmissionNumber();
-
-                if (movingForward.contains(admNo)) {
-                    // Student is moving forward — mark as ATTEMPTED
-                    p.setParticipationStatus(ParticipationStatus.ATTEMPTED);
-                    p.setEventDescription(
-                            (eventDescription != null ? eventDescription : "OA Link sent")
-                                    + " | OA Link: " + (oaLink != null ? oaLink : "N/A")
-                    );
-                    participationRepository.save(p);
-                    updatedCount++;
-                } else {
-                    // Student registered but NOT in the forward list — REJECTED
-                    if (p.getParticipationStatus() == ParticipationStatus.REGISTERED) {
-                        p.setParticipationStatus(ParticipationStatus.REJECTED);
-                        p.setEventDescription("Not shortlisted for OA round");
-                        participationRepository.save(p);
-                        rejectedCount++;
-                    }
-                }
-            }
-
-            // Handle students in list but not yet registered
-            int newRegistrations = 0;
-            for (String admNo : studentAdmissionNumbers) {
-                if (!allRegistered.contains(admNo)) {
-                    Participation newParticipation = new Participation();
-                    newParticipation.setStudentAdmissionNumber(admNo);
-                    newParticipation.setEventId(eventId);
-                    newParticipation.setParticipationStatus(ParticipationStatus.ATTEMPTED);
-                    newParticipation.setEventDescription(
-                            (eventDescription != null ? eventDescription : "OA Link sent")
-                                    + " | OA Link: " + (oaLink != null ? oaLink : "N/A")
-                    );
-                    newParticipation.setCreatedAt(LocalDateTime.now());
-                    participationRepository.save(newParticipation);
-                    newRegistrations++;
-                }
-            }
+            // Students in the list move to ATTEMPTED (OA sent); those still only REGISTERED are rejected
+            BulkOperationsService.RoundResult result = bulkOperationsService.applyRound(eventId, studentAdmissionNumbers,
+                    ParticipationStatus.ATTEMPTED,
+                    (eventDescription != null ? eventDescription : "OA Link sent")
+                            + " | OA Link: " + (oaLink != null ? oaLink : "N/A"),
+                    EnumSet.of(ParticipationStatus.REGISTERED), "Not shortlisted for OA round",
+                    true);
 
             response.put("success", true);
             response.put("message", String.format(
                     "OA links processed: %d updated, %d rejected, %d new registrations",
-                    updatedCount, rejectedCount, newRegistrations
+                    result.updatedCount(), result.rejectedCount(), result.newRegistrations()
             ));
-            response.put("updatedCount", updatedCount);
-            response.put("rejectedCount", rejectedCount);
-            response.put("newRegistrations", newRegistrations);
+            response.put("updatedCount", result.updatedCount());
+            response.put("rejectedCount", result.rejectedCount());
+            response.put("newRegistrations", result.newRegistrations());
 
             return ResponseEntity.ok(response);
 
@@ -211,60 +163,18 @@ public class BulkOperationsController {
                 return ResponseEntity.status(400).body(response);
             }
 
-            List<Participation> allParticipations = participationRepository.findByEventId(eventId);
-            Set<String> allRegistered = allParticipations.stream()
-                    .map(Participation::getStudentAdmissionNumber)
-                    .collect(Collectors.toSet());
-
-            Set<String> movingForward = new HashSet<>(studentAdmissionNumbers);
-
-            int updatedCount = 0;
-            int rejectedCount = 0;
-
-            for (Participation p : allParticipations) {
-                String admNo = p.getStudentAdmissionNumber();
-
-                if (movingForward.contains(admNo)) {
-                    p.setParticipationStatus(ParticipationStatus.ATTEMPTED);
-                    p.setEventDescription(
-                            (eventDescription != null ? eventDescription : "Interview scheduled")
-                                    + " | Interview Link: " + (interviewLink != null ? interviewLink : "N/A")
-                    );
-                    participationRepository.save(p);
-                    updatedCount++;
-                } else {
-                    // Only reject if they were previously ATTEMPTED (passed OA) or REGISTERED
-                    if (p.getParticipationStatus() == ParticipationStatus.ATTEMPTED
-                            || p.getParticipationStatus() == ParticipationStatus.REGISTERED) {
-                        p.setParticipationStatus(ParticipationStatus.REJECTED);
-                        p.setEventDescription("Not shortlisted for interview round");
-                        participationRepository.save(p);
-                        rejectedCount++;
-                    }
-                }
-            }
-
-            int newRegistrations = 0;
-            for (String admNo : studentAdmissionNumbers) {
-                if (!allRegistered.contains(admNo)) {
-                    Participation newParticipation = new Participation();
-                    newParticipation.setStudentAdmissionNumber(admNo);
-                    newParticipation.setEventId(eventId);
-                    newParticipation.setParticipationStatus(ParticipationStatus.ATTEMPTED);
-                    newParticipation.setEventDescription(
-                            (eventDescription != null ? eventDescription : "Interview scheduled")
-                                    + " | Interview Link: " + (interviewLink != null ? interviewLink : "N/A")
-                    );
-                    newParticipation.setCreatedAt(LocalDateTime.now());
-                    participationRepository.save(newParticipation);
-                    newRegistrations++;
-                }
-            }
+            // Only reject those still ATTEMPTED (passed OA) or REGISTERED
+            BulkOperationsService.RoundResult result = bulkOperationsService.applyRound(eventId, studentAdmissionNumbers,
+                    ParticipationStatus.ATTEMPTED,
+                    (eventDescription != null ? eventDescription : "Interview scheduled")
+                            + " | Interview Link: " + (interviewLink != null ? interviewLink : "N/A"),
+                    EnumSet.of(ParticipationStatus.ATTEMPTED, ParticipationStatus.REGISTERED), "Not shortlisted for interview round",
+                    true);
 
             response.put("success", true);
             response.put("message", String.format(
                     "Interviews processed: %d updated, %d rejected, %d new",
-                    updatedCount, rejectedCount, newRegistrations
+                    result.updatedCount(), result.rejectedCount(), result.newRegistrations()
             ));
 
             return ResponseEntity.ok(response);
@@ -306,39 +216,21 @@ public class BulkOperationsController {
                 return ResponseEntity.status(400).body(response);
             }
 
-            List<Participation> allParticipations = participationRepository.findByEventId(eventId);
-            Set<String> selectedSet = new HashSet<>(selectedStudents);
-
-            int selectedCount = 0;
-            int rejectedCount = 0;
-
-            for (Participation p : allParticipations) {
-                String admNo = p.getStudentAdmissionNumber();
-
-                if (selectedSet.contains(admNo)) {
-                    p.setParticipationStatus(ParticipationStatus.SELECTED);
-                    p.setEventDescription("Congratulations! Final selection confirmed for " + eventOpt.get().getEventName());
-                    participationRepository.save(p);
-                    selectedCount++;
-                } else {
-                    // Only reject those not already rejected
-                    if (p.getParticipationStatus() != ParticipationStatus.REJECTED
-                            && p.getParticipationStatus() != ParticipationStatus.SELECTED) {
-                        p.setParticipationStatus(ParticipationStatus.REJECTED);
-                        p.setEventDescription("Not selected in final round");
-                        participationRepository.save(p);
-                        rejectedCount++;
-                    }
-                }
-            }
+            // Only reject those not already rejected or selected; unregistered students are not added here
+            BulkOperationsService.RoundResult result = bulkOperationsService.applyRound(eventId, selectedStudents,
+                    ParticipationStatus.SELECTED,
+                    "Congratulations! Final selection confirmed for " + eventOpt.get().getEventName(),
+                    EnumSet.complementOf(EnumSet.of(ParticipationStatus.REJECTED, ParticipationStatus.SELECTED)),
+                    "Not selected in final round",
+                    false);
 
             response.put("success", true);
             response.put("message", String.format(
                     "Final selection complete: %d selected, %d rejected",
-                    selectedCount, rejectedCount
+                    result.updatedCount(), result.rejectedCount()
             ));
-            response.put("selectedCount", selectedCount);
-            response.put("rejectedCount", rejectedCount);
+            response.put("selectedCount", result.updatedCount());
+            response.put("rejectedCount", result.rejectedCount());
 
             return ResponseEntity.ok(response);
 
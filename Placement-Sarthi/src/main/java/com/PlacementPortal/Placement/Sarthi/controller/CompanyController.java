@@ -33,9 +33,17 @@ public class CompanyController {
         return ResponseEntity.ok(createdCompany);
     }
 
+    // One keyset page, of pagination.default-page-size when no limit is given; nextCursor fetches the next one
     @GetMapping
-    public ResponseEntity<List<Company>> getAllCompanies() {
-        return ResponseEntity.ok(companyService.getAllCompanies());
+    public ResponseEntity<?> getAllCompanies(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            return ResponseEntity.ok(companyService.getCompaniesPage(cursor, limit, includeTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
     }
 
     @GetMapping("/{companyId}")
@@ -1,22 +1,19 @@
 package com.PlacementPortal.Placement.Sarthi.controller;
 
 import com.PlacementPortal.Placement.Sarthi.entity.Event;
-import com.PlacementPortal.Placement.Sarthi.entity.Participation;
-import com.PlacementPortal.Placement.Sarthi.entity.Student;
 import com.PlacementPortal.Placement.Sarthi.repository.ParticipationRepository;
-import com.PlacementPortal.Placement.Sarthi.repository.StudentRepository;
 import com.PlacementPortal.Placement.Sarthi.service.EventService;
+import com.PlacementPortal.Placement.Sarthi.service.ParticipationService;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayOutputStream;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/events")
@@ -28,7 +25,7 @@ public class EventController {
     private ParticipationRepository participationRepository;
 
     @Autowired
-    private StudentRepository studentRepository;
+    private ParticipationService participationService;
 
     @PostMapping("/create")
     public ResponseEntity<?> createEvent(@RequestBody Event event) {
@@ -42,9 +39,17 @@ public class EventController {
         }
     }
 
+    // One keyset page, of pagination.default-page-size when no limit is given; nextCursor fetches the next one
     @GetMapping
-    public ResponseEntity<List<Event>> getAllEvents() {
-        return ResponseEntity.ok(eventService.getAllEvents());
+    public ResponseEntity<?> getAllEvents(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            return ResponseEntity.ok(eventService.getEventsPage(cursor, limit, includeTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
     }
 
     @GetMapping("/{id}")
@@ -115,31 +120,25 @@ public class EventController {
     // Get registered student count for an event
     @GetMapping("/{eventId}/registrations/count")
     public ResponseEntity<Map<String, Object>> getRegistrationCount(@PathVariable String eventId) {
-        List<Participation> participations = participationRepository.findByEventId(eventId);
         return ResponseEntity.ok(Map.of(
                 "eventId", eventId,
-                "count", participations.size()
+                "count", participationRepository.countByEventId(eventId)
         ));
     }
 
     // Get registered students for an event
     @GetMapping("/{eventId}/registrations")
     public ResponseEntity<List<Map<String, Object>>> getRegisteredStudents(@PathVariable String eventId) {
-        List<Participation> participations = participationRepository.findByEventId(eventId);
-
         List<Map<String, Object>> result = new ArrayList<>();
 
-        for (Participation p : participations) {
+        participationService.forEachRegistration(eventId, (p, s) -> {
             Map<String, Object> entry = new LinkedHashMap<>();
             entry.put("admissionNumber", p.getStudentAdmissionNumber());
             entry.put("status", p.getParticipationStatus() != null ? p.getParticipationStatus().toString() : "REGISTERED");
             entry.put("registeredAt", p.getCreatedAt() != null ? p.getCreatedAt().toString() : "");
             entry.put("description", p.getEventDescription());
 
-            // Fetch student details
-            Optional<Student> studentOpt = studentRepository.findByStudentAdmissionNumber(p.getStudentAdmissionNumber());
-            if (studentOpt.isPresent()) {
-                Student s = studentOpt.get();
+            if (s != null) {
                 entry.put("firstName", s.getStudentFirstName());
                 entry.put("lastName", s.getStudentLastName());
                 entry.put("department", s.getDepartment());
@@ -156,102 +155,81 @@ public class EventController {
             }
 
             result.add(entry);
-        }
+        });
 
         return ResponseEntity.ok(result);
     }
 
+    // Rows are written as each batch of registrations is joined with its students
     @GetMapping("/{eventId}/registrations/export")
-    public ResponseEntity<byte[]> exportRegisteredStudents(@PathVariable String eventId) {
-        try {
-            List<Participation> participations = participationRepository.findByEventId(eventId);
-
-            // Collect admission numbers
-            List<String> admissionNumbers = participations.stream()
-                    .map(Participation::getStudentAdmissionNumber)
-                    .collect(Collectors.toList());
-
-            // Fetch all students
-            List<Student> students = new ArrayList<>();
-            for (String admNo : admissionNumbers) {
-                studentRepository.findByStudentAdmissionNumber(admNo).ifPresent(students::add);
+    public ResponseEntity<StreamingResponseBody> exportRegisteredStudents(@PathVariable String eventId) {
+        StreamingResponseBody body = outputStream -> {
+            SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+            try {
+                Sheet sheet = workbook.createSheet("Registered Students");
+
+                // Header style
+                CellStyle headerStyle = workbook.createCellStyle();
+                Font headerFont = workbook.createFont();
+                headerFont.setBold(true);
+                headerFont.setFontHeightInPoints((short) 11);
+                headerStyle.setFont(headerFont);
+                headerStyle.setFillForegroundColor(IndexedColors.LIGHT_BLUE.getIndex());
+                headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+
+                // Headers, with fixed widths in characters instead of autoSizeColumn
+                String[] headers = {
+                        "Admission Number", "First Name", "Last Name", "Department", "Batch",
+                        "Course", "CGPA", "10th %", "12th %", "Backlogs",
+                        "Email", "Phone", "University Roll No", "Enrollment No", "Status"
+                };
+                int[] widths = {18, 16, 16, 24, 8, 20, 8, 8, 8, 10, 32, 14, 20, 18, 12};
+
+                Row headerRow = sheet.createRow(0);
+                for (int i = 0; i < headers.length; i++) {
+                    Cell cell = headerRow.createCell(i);
+                    cell.setCellValue(headers[i]);
+                    cell.setCellStyle(headerStyle);
+                    sheet.setColumnWidth(i, widths[i] * 256);
+                }
+
+                // Data rows; registrations of deleted students are left out
+                int[] rowNum = {1};
+                participationService.forEachRegistration(eventId, (p, s) -> {
+                    if (s == null) {
+                        return;
+                    }
+                    Row row = sheet.createRow(rowNum[0]++);
+                    row.createCell(0).setCellValue(s.getStudentAdmissionNumber() != null ? s.getStudentAdmissionNumber() : "");
+                    row.createCell(1).setCellValue(s.getStudentFirstName() != null ? s.getStudentFirstName() : "");
+                    row.createCell(2).setCellValue(s.getStudentLastName() != null ? s.getStudentLastName() : "");
+                    row.createCell(3).setCellValue(s.getDepartment() != null ? s.getDepartment() : "");
+                    row.createCell(4).setCellValue(s.getBatch() != null ? s.getBatch() : "");
+                    row.createCell(5).setCellValue(s.getCourse() != null ? s.getCourse() : "");
+                    row.createCell(6).setCellValue(s.getCgpa() != null ? s.getCgpa() : 0);
+                    row.createCell(7).setCellValue(s.getTenthPercentage() != null ? s.getTenthPercentage() : 0);
+                    row.createCell(8).setCellValue(s.getTwelfthPercentage() != null ? s.getTwelfthPercentage() : 0);
+                    row.createCell(9).setCellValue(s.getBackLogsCount() != null ? s.getBackLogsCount() : 0);
+                    row.createCell(10).setCellValue(s.getEmailId() != null ? s.getEmailId() : "");
+                    row.createCell(11).setCellValue(s.getMobileNo() != null ? s.getMobileNo() : "");
+                    row.createCell(12).setCellValue(s.getStudentUniversityRollNo() != null ? s.getStudentUniversityRollNo() : "");
+                    row.createCell(13).setCellValue(s.getStudentEnrollmentNo() != null ? s.getStudentEnrollmentNo() : "");
+                    row.createCell(14).setCellValue(p.getParticipationStatus() != null ? p.getParticipationStatus().toString() : "REGISTERED");
+                });
+
+                workbook.write(outputStream);
+            } finally {
+                workbook.dispose();
+                workbook.close();
             }
+        };
 
-            // Build status map
-            Map<String, String> statusMap = participations.stream()
-                    .collect(Collectors.toMap(
-                            Participation::getStudentAdmissionNumber,
-                            p -> p.getParticipationStatus() != null ? p.getParticipationStatus().toString() : "REGISTERED",
-                            (a, b) -> a
-                    ));
-
-            // Create Excel
-            Workbook workbook = new XSSFWorkbook();
-            Sheet sheet = workbook.createSheet("Registered Students");
-
-            // Header style
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setFontHeightInPoints((short) 11);
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.LIGHT_BLUE.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        HttpHeaders httpHeaders = new HttpHeaders();
+        httpHeaders.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        httpHeaders.setContentDispositionFormData("attachment", "registered_students_" + eventId + ".xlsx");
 
-            // Headers
-            String[] headers = {
-                    "Admission Number", "First Name", "Last Name", "Department", "Batch",
-                    "Course", "CGPA", "10th %", "12th %", "Backlogs",
-                    "Email", "Phone", "University Roll No", "Enrollment No", "Status"
-            };
-
-            Row headerRow = sheet.createRow(0);
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-            }
-
-            // Data rows
-            int rowNum = 1;
-            for (Student s : students) {
-                Row row = sheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(s.getStudentAdmissionNumber() != null ? s.getStudentAdmissionNumber() : "");
-                row.createCell(1).setCellValue(s.getStudentFirstName() != null ? s.getStudentFirstName() : "");
-                row.createCell(2).setCellValue(s.getStudentLastName() != null ? s.getStudentLastName() : "");
-                row.createCell(3).setCellValue(s.getDepartment() != null ? s.getDepartment() : "");
-                row.createCell(4).setCellValue(s.getBatch() != null ? s.getBatch() : "");
-                row.createCell(5).setCellValue(s.getCourse() != null ? s.getCourse() : "");
-                row.createCell(6).setCellValue(s.getCgpa() != null ? s.getCgpa() : 0);
-                row.createCell(7).setCellValue(s.getTenthPercentage() != null ? s.getTenthPercentage() : 0);
-                row.createCell(8).setCellValue(s.getTwelfthPercentage() != null ? s.getTwelfthPercentage() : 0);
-                row.createCell(9).setCellValue(s.getBackLogsCount() != null ? s.getBackLogsCount() : 0);
-                row.createCell(10).setCellValue(s.getEmailId() != null ? s.getEmailId() : "");
-                row.createCell(11).setCellValue(s.getMobileNo() != null ? s.getMobileNo() : "");
-                row.createCell(12).setCellValue(s.getStudentUniversityRollNo() != null ? s.getStudentUniversityRollNo() : "");
-                row.createCell(13).setCellValue(s.getStudentEnrollmentNo() != null ? s.getStudentEnrollmentNo() : "");
-                row.createCell(14).setCellValue(statusMap.getOrDefault(s.getStudentAdmissionNumber(), "REGISTERED"));
-            }
-
-            // Auto-size columns
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            workbook.close();
-
-            HttpHeaders httpHeaders = new HttpHeaders();
-            httpHeaders.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-            httpHeaders.setContentDispositionFormData("attachment", "registered_students_" + eventId + ".xlsx");
-
-            return ResponseEntity.ok()
-                    .headers(httpHeaders)
-                    .body(outputStream.toByteArray());
-
-        } catch (Exception e) {
-            return ResponseEntity.status(500).build();
-        }
+        return ResponseEntity.ok()
+                .headers(httpHeaders)
+                .body(body);
     }
-}
\ No newline at end of file
+}
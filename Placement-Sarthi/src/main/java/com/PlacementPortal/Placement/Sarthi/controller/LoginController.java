@@ -3,97 +3,148 @@ package com.PlacementPortal.Placement.Sarthi.controller;
 import com.PlacementPortal.Placement.Sarthi.entity.Admin;
 import com.PlacementPortal.Placement.Sarthi.entity.Company;
 import com.PlacementPortal.Placement.Sarthi.entity.Student;
-import com.PlacementPortal.Placement.Sarthi.repository.AdminRepository;
-import com.PlacementPortal.Placement.Sarthi.repository.CompanyRepository;
-import com.PlacementPortal.Placement.Sarthi.repository.StudentRepository;
+import com.PlacementPortal.Placement.Sarthi.service.LastLoginTracker;
+import com.PlacementPortal.Placement.Sarthi.service.LoginExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpSession;
-import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api")
 public class LoginController {
 
+    private static final Logger logger = LoggerFactory.getLogger(LoginController.class);
+
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private LoginExecutor loginExecutor;
 
+    // Spring's shared async pool (also used for MVC async requests); keeps the login pool for BCrypt only
     @Autowired
-    private StudentRepository studentRepository;
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    @Value("${login.retry-after-seconds:5}")
+    private int retryAfterSeconds;
 
     @Autowired
-    private AdminRepository adminRepository;
+    private MongoTemplate mongoTemplate;
 
     @Autowired
-    private CompanyRepository companyRepository;
+    private LastLoginTracker lastLoginTracker;
+
+    // Only the fields the login response returns
+    private static final String[] STUDENT_FIELDS = {"studentFirstName", "studentLastName", "emailId", "department",
+            "mobileNo", "dateOfBirth", "photographLink", "studentUniversityRollNo", "cgpa", "batch", "course"};
+    private static final String[] ADMIN_FIELDS = {"adminName", "emailAddress", "phoneNumber", "city", "department", "dateOfBirth"};
+    private static final String[] COMPANY_FIELDS = {"companyName", "hrName", "hrEmail", "hrPhone", "photoLink", "createdAt", "updatedAt"};
 
     @PostMapping("/login")
-    public ResponseEntity<Map<String, Object>> login(
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> login(
             @RequestParam String username,
             @RequestParam String password,
-            @RequestParam String role,
-            HttpServletRequest request) {
+            @RequestParam String role) {
 
+        String roleLower = role.trim().toLowerCase();
+
+        if (!roleLower.equals("student") && !roleLower.equals("admin") && !roleLower.equals("company")) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", "Invalid role: " + role
+            )));
+        }
+
+        String compositeUsername = roleLower + ":" + username.trim();
+
+        // Password verification runs on the login pool; the servlet thread is released until it completes.
+        // The profile read then continues on the application pool. Neither touches the request: the session
+        // is written by LoginSessionInterceptor on the servlet thread that dispatches the result.
         try {
-            String roleLower = role.trim().toLowerCase();
+            return loginExecutor.authenticate(compositeUsername, password)
+                    .thenApplyAsync(authentication -> loginSucceeded(authentication, roleLower), applicationTaskExecutor)
+                    .exceptionally(this::loginFailed);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .body(Map.of(
+                            "success", false,
+                            "message", "Too many logins right now. Please try again in a few seconds."
+                    )));
+        }
+    }
 
-            if (!roleLower.equals("student") && !roleLower.equals("admin") && !roleLower.equals("company")) {
-                return ResponseEntity.badRequest().body(Map.of(
-                        "success", false,
-                        "message", "Invalid role: " + role
-                ));
-            }
+    private ResponseEntity<Map<String, Object>> loginSucceeded(Authentication authentication, String role) {
+        // The authenticated name is canonical (admin:<adminId> even when the admin typed an email)
+        String[] principal = authentication.getName().split(":", 2);
+        Map<String, Object> userData = buildUserData(role, principal[1]);
+        lastLoginTracker.record(role, principal[1]);
 
-            String compositeUsername = roleLower + ":" + username.trim();
+        if (userData == null) {
+            return ResponseEntity.status(500).body(Map.of(
+                    "success", false,
+                    "message", "Error fetching user profile after login"
+            ));
+        }
 
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(compositeUsername, password)
-            );
+        return new AuthenticatedResponse(authentication, Map.of(
+                "success", true,
+                "message", "Login successful",
+                "user", userData
+        ));
+    }
 
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+    /**
+     * A successful login response that carries the authentication to store in the session. Only the
+     * body and status are written to the client.
+     */
+    static class AuthenticatedResponse extends ResponseEntity<Map<String, Object>> {
 
-            HttpSession session = request.getSession(true);
-            session.setAttribute("SPRING_SECURITY_CONTEXT", SecurityContextHolder.getContext());
+        private final Authentication authentication;
 
-            Map<String, Object> userData = buildUserData(roleLower, username.trim());
+        AuthenticatedResponse(Authentication authentication, Map<String, Object> body) {
+            super(body, HttpStatus.OK);
+            this.authentication = authentication;
+        }
 
-            if (userData == null) {
-                return ResponseEntity.status(500).body(Map.of(
-                        "success", false,
-                        "message", "Error fetching user profile after login"
-                ));
-            }
+        Authentication getAuthentication() {
+            return authentication;
+        }
+    }
 
-            return ResponseEntity.ok(Map.of(
-                    "success", true,
-                    "message", "Login successful",
-                    "user", userData
-            ));
+    private ResponseEntity<Map<String, Object>> loginFailed(Throwable error) {
+        Throwable e = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
 
-        } catch (BadCredentialsException e) {
+        if (e instanceof BadCredentialsException) {
             return ResponseEntity.status(401).body(Map.of(
                     "success", false,
                     "message", "Invalid credentials. Please check your ID and password."
             ));
-        } catch (Exception e) {
-            System.err.println("Login error: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.status(500).body(Map.of(
-                    "success", false,
-                    "message", "Login failed: " + e.getMessage()
-            ));
         }
+
+        logger.error("Login error: {}", e.getMessage(), e);
+        return ResponseEntity.status(500).body(Map.of(
+                "success", false,
+                "message", "Login failed: " + e.getMessage()
+        ));
     }
 
     @GetMapping("/check-session")
@@ -122,12 +173,8 @@ public class LoginController {
 
         switch (role) {
             case "student":
-                Optional<Student> studentOpt = studentRepository.findByStudentAdmissionNumber(userId);
-                if (studentOpt.isPresent()) {
-                    Student s = studentOpt.get();
-                    s.setLastLogin(LocalDateTime.now());
-                    studentRepository.save(s);
-
+                Student s = mongoTemplate.findOne(profileQuery(userId, STUDENT_FIELDS), Student.class);
+                if (s != null) {
                     userData.put("studentAdmissionNumber", nullSafe(s.getStudentAdmissionNumber()));
                     userData.put("studentFirstName", nullSafe(s.getStudentFirstName()));
                     userData.put("studentLastName", nullSafe(s.getStudentLastName()));
@@ -144,17 +191,8 @@ public class LoginController {
                 break;
 
             case "admin":
-                // Try by email first, then by ID (both are String in MongoDB)
-                Optional<Admin> adminOpt = adminRepository.findByEmailAddress(userId);
-                if (adminOpt.isEmpty()) {
-                    adminOpt = adminRepository.findById(userId);
-                }
-
-                if (adminOpt.isPresent()) {
-                    Admin a = adminOpt.get();
-                    a.setLastLogin(LocalDateTime.now());
-                    adminRepository.save(a);
-
+                Admin a = mongoTemplate.findOne(profileQuery(userId, ADMIN_FIELDS), Admin.class);
+                if (a != null) {
                     userData.put("adminId", nullSafe(a.getAdminId()));
                     userData.put("adminName", nullSafe(a.getAdminName()));
                     userData.put("emailAddress", nullSafe(a.getEmailAddress()));
@@ -166,10 +204,8 @@ public class LoginController {
                 break;
 
             case "company":
-                Optional<Company> companyOpt = companyRepository.findByCompanyId(userId);
-                if (companyOpt.isPresent()) {
-                    Company c = companyOpt.get();
-
+                Company c = mongoTemplate.findOne(profileQuery(userId, COMPANY_FIELDS), Company.class);
+                if (c != null) {
                     userData.put("companyId", nullSafe(c.getCompanyId()));
                     userData.put("companyName", nullSafe(c.getCompanyName()));
                     userData.put("hrName", nullSafe(c.getHrName()));
@@ -188,6 +224,12 @@ public class LoginController {
         return userData.isEmpty() ? null : userData;
     }
 
+    private Query profileQuery(String id, String[] fields) {
+        Query query = new Query(Criteria.where("_id").is(id));
+        query.fields().include(fields);
+        return query;
+    }
+
     private String nullSafe(String value) {
         return value != null ? value : "";
     }
@@ -0,0 +1,36 @@
+package com.PlacementPortal.Placement.Sarthi.controller;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Stores the security context of a successful /api/login in the session. The login itself finishes
+ * on pool threads; this runs on the servlet thread of the async dispatch that writes the response,
+ * so the session is created and filled while the container owns the request and before the session
+ * filter of that dispatch commits it.
+ */
+@Component
+public class LoginSessionInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            return true;
+        }
+
+        Object result = WebAsyncUtils.getAsyncManager(request).getConcurrentResult();
+        if (result instanceof LoginController.AuthenticatedResponse authenticated) {
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(authenticated.getAuthentication());
+            request.getSession(true).setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, context);
+        }
+        return true;
+    }
+}
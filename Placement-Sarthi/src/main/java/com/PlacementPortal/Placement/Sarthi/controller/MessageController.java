@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -61,11 +62,17 @@ public class MessageController {
         }
     }
 
+    // Relevance-ranked; page is 0-based and size is capped at 100
     @GetMapping("/search")
-    public ResponseEntity<Map<String, Object>> searchMessages(@RequestParam String query) {
+    public ResponseEntity<Map<String, Object>> searchMessages(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
         try {
-            List<Message> messages = messageService.searchMessages(query);
-            return ResponseEntity.ok(Map.of("success", true, "messages", messages));
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("success", true);
+            response.putAll(messageService.searchMessages(query, Math.max(page, 0), Math.max(1, Math.min(size, 100))));
+            return ResponseEntity.ok(response);
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of(
                     "success", false,
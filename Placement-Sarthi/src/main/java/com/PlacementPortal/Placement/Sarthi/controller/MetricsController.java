@@ -0,0 +1,53 @@
+package com.PlacementPortal.Placement.Sarthi.controller;
+
+import com.PlacementPortal.Placement.Sarthi.config.MongoSessionRepository;
+import com.PlacementPortal.Placement.Sarthi.service.BulkPasswordHasher;
+import com.PlacementPortal.Placement.Sarthi.service.CustomUserDetailsService;
+import com.PlacementPortal.Placement.Sarthi.service.EventService;
+import com.PlacementPortal.Placement.Sarthi.service.LastLoginTracker;
+import com.PlacementPortal.Placement.Sarthi.service.LoginExecutor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/metrics")
+public class MetricsController {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private BulkPasswordHasher bulkPasswordHasher;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private LastLoginTracker lastLoginTracker;
+
+    @Autowired
+    private LoginExecutor loginExecutor;
+
+    // Absent when session.store.mongo=false
+    @Autowired
+    private ObjectProvider<MongoSessionRepository> sessionRepository;
+
+    // In-process cache and worker pool counters, for watching hit ratios during placement season
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("success", true);
+        metrics.put("eventCatalogueCache", eventService.getCacheStats());
+        metrics.put("userDetailsCache", userDetailsService.getCacheStats());
+        metrics.put("loginVerification", loginExecutor.getStats());
+        metrics.put("lastLoginBuffer", lastLoginTracker.getStats());
+        metrics.put("passwordHashing", bulkPasswordHasher.getStats());
+        sessionRepository.ifAvailable(repository -> metrics.put("sessionNearCache", repository.getCacheStats()));
+        return ResponseEntity.ok(metrics);
+    }
+}
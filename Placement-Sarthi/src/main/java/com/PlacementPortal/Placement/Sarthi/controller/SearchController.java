@@ -0,0 +1,42 @@
+package com.PlacementPortal.Placement.Sarthi.controller;
+
+import com.PlacementPortal.Placement.Sarthi.service.SearchIndexService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    // Global search-as-you-type over students, events and companies; type narrows it to one of them
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            List<Map<String, Object>> results = searchIndexService.search(q, type, limit);
+            return ResponseEntity.ok(Map.of("success", true, "results", results));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of(
+                    "success", false, "message", "Search failed: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuild() {
+        try {
+            return ResponseEntity.ok(Map.of("success", true, "indexed", searchIndexService.rebuild()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of(
+                    "success", false, "message", "Index rebuild failed, previous index kept: " + e.getMessage()));
+        }
+    }
+}
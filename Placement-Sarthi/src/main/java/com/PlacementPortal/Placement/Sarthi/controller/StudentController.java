@@ -1,15 +1,27 @@
 package com.PlacementPortal.Placement.Sarthi.controller;
 
+import com.PlacementPortal.Placement.Sarthi.entity.BulkUploadJob;
+import com.PlacementPortal.Placement.Sarthi.entity.ImportMode;
 import com.PlacementPortal.Placement.Sarthi.entity.Student;
+import com.PlacementPortal.Placement.Sarthi.service.BulkUploadJobService;
 import com.PlacementPortal.Placement.Sarthi.service.StudentService;
 import com.PlacementPortal.Placement.Sarthi.service.ExcelProcessingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -24,6 +36,12 @@ public class StudentController {
     @Autowired
     private ExcelProcessingService excelProcessingService;
 
+    @Autowired
+    private BulkUploadJobService bulkUploadJobService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     // Admin registers student - default password "gehu@123" is set in StudentService
     @PostMapping("/register")
     public ResponseEntity<?> registerStudent(@RequestBody Student student) {
@@ -41,8 +59,15 @@ public class StudentController {
         }
     }
 
+    // async=true stores the file and returns a job id immediately; poll /bulk-upload/jobs/{jobId} for progress.
+    // mode=upsert updates the changed fields of existing students instead of rejecting them.
+    // validateOnly=true saves nothing and streams the row errors back as NDJSON while the file is parsed
     @PostMapping("/bulk-upload")
-    public ResponseEntity<Map<String, Object>> uploadBulkStudents(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<?> uploadBulkStudents(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "false") boolean async,
+            @RequestParam(defaultValue = "insert") String mode,
+            @RequestParam(defaultValue = "false") boolean validateOnly) {
         try {
             if (file.isEmpty()) {
                 return ResponseEntity.badRequest().body(Map.of(
@@ -50,12 +75,35 @@ public class StudentController {
             }
 
             String fileName = file.getOriginalFilename();
-            if (fileName == null || (!fileName.endsWith(".xlsx") && !fileName.endsWith(".xls") && !fileName.endsWith(".csv"))) {
+            if (fileName == null || (!fileName.endsWith(".xlsx") && !fileName.endsWith(".csv"))) {
+                return ResponseEntity.badRequest().body(Map.of(
+                        "success", false, "message", "Please upload an Excel file (.xlsx) or CSV file"));
+            }
+
+            ImportMode importMode;
+            try {
+                importMode = ImportMode.valueOf(mode.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
                 return ResponseEntity.badRequest().body(Map.of(
-                        "success", false, "message", "Please upload an Excel file (.xlsx, .xls) or CSV file"));
+                        "success", false, "message", "Invalid mode: " + mode + ". Use insert or upsert"));
             }
 
-            Map<String, Object> result = excelProcessingService.processBulkUpload(file);
+            if (validateOnly) {
+                return ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                        .body(validateAsNdjson(file, importMode));
+            }
+
+            if (async) {
+                BulkUploadJob job = bulkUploadJobService.submit(file, importMode);
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                        "success", true,
+                        "jobId", job.getJobId(),
+                        "status", job.getStatus().toString(),
+                        "message", "Upload accepted. Processing in the background."));
+            }
+
+            Map<String, Object> result = excelProcessingService.processBulkUpload(file, importMode);
             return ResponseEntity.ok(result);
 
         } catch (Exception e) {
@@ -64,6 +112,77 @@ public class StudentController {
         }
     }
 
+    /*
+     * One JSON object per line: {"type":"error","row":..,"errors":{field: message}} for every failing
+     * row as soon as it is found, then a final {"type":"summary",...} line with the totals.
+     */
+    private StreamingResponseBody validateAsNdjson(MultipartFile file, ImportMode mode) {
+        return outputStream -> {
+            try (InputStream inputStream = file.getInputStream()) {
+                Map<String, Object> summary = excelProcessingService.validateBulkUpload(inputStream,
+                        file.getOriginalFilename(), mode, rowError -> {
+                            Map<String, Object> line = new LinkedHashMap<>();
+                            line.put("type", "error");
+                            line.put("row", Integer.parseInt(rowError.get("row")));
+                            Map<String, String> fieldErrors = new LinkedHashMap<>(rowError);
+                            fieldErrors.remove("row");
+                            line.put("errors", fieldErrors);
+                            writeNdjsonLine(outputStream, line);
+                        });
+
+                Map<String, Object> line = new LinkedHashMap<>();
+                line.put("type", "summary");
+                line.putAll(summary);
+                writeNdjsonLine(outputStream, line);
+            }
+        };
+    }
+
+    // Flushed per line so the client sees the first errors while the rest of the file is still being read
+    private void writeNdjsonLine(OutputStream outputStream, Map<String, Object> line) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(line));
+            outputStream.write('\n');
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @GetMapping("/bulk-upload/jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> getBulkUploadJob(@PathVariable String jobId) {
+        BulkUploadJob job = bulkUploadJobService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                    "success", false, "message", "Upload job not found: " + jobId));
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("success", true);
+        response.putAll(bulkUploadJobService.toStatus(job));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/bulk-upload/jobs/{jobId}/errors")
+    public ResponseEntity<?> downloadBulkUploadErrors(@PathVariable String jobId) {
+        BulkUploadJob job = bulkUploadJobService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                    "success", false, "message", "Upload job not found: " + jobId));
+        }
+
+        GridFsResource report = bulkUploadJobService.getErrorReport(job);
+        if (report == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                    "success", false, "message", "No error report for job " + jobId + " (status " + job.getStatus() + ")"));
+        }
+
+        return ResponseEntity.ok()
+                .header("Content-Type", "text/csv")
+                .header("Content-Disposition", "attachment; filename=\"bulk_upload_errors_" + jobId + ".csv\"")
+                .body(report);
+    }
+
     @GetMapping("/download-template")
     public ResponseEntity<byte[]> downloadStudentTemplate() {
         try {
@@ -77,9 +196,17 @@ public class StudentController {
         }
     }
 
+    // One keyset page, of pagination.default-page-size when no limit is given; nextCursor fetches the next one
     @GetMapping
-    public ResponseEntity<List<Student>> getAllStudents() {
-        return ResponseEntity.ok(studentService.getAllStudents());
+    public ResponseEntity<?> getAllStudents(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            return ResponseEntity.ok(studentService.getStudentsPage(cursor, limit, includeTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
     }
 
     @GetMapping("/{admissionNumber}")
@@ -231,21 +358,28 @@ public class StudentController {
         }
     }
 
+    // format=xlsx (default), csv or ndjson; the file is written to the response while the cursor is read
     @GetMapping("/export/filtered")
-    public ResponseEntity<byte[]> exportFilteredStudents(
+    public ResponseEntity<?> exportFilteredStudents(
             @RequestParam(required = false) String department,
             @RequestParam(required = false) Double minCgpa,
             @RequestParam(required = false) Integer maxBacklogs,
-            @RequestParam(required = false) String batch) {
+            @RequestParam(required = false) String batch,
+            @RequestParam(defaultValue = "xlsx") String format) {
+        StudentService.ExportFormat exportFormat;
         try {
-            byte[] excelData = studentService.exportFilteredStudents(department, minCgpa, maxBacklogs, batch);
-            return ResponseEntity.ok()
-                    .header("Content-Type", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
-                    .header("Content-Disposition", "attachment; filename=\"filtered_students.xlsx\"")
-                    .body(excelData);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            exportFormat = StudentService.ExportFormat.valueOf(format.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false, "message", "Invalid format: " + format + ". Use xlsx, csv or ndjson"));
         }
+
+        StreamingResponseBody body = outputStream -> studentService.exportFilteredStudents(
+                department, minCgpa, maxBacklogs, batch, exportFormat, outputStream);
+        return ResponseEntity.ok()
+                .header("Content-Type", exportFormat.getContentType())
+                .header("Content-Disposition", "attachment; filename=\"filtered_students." + exportFormat.getFileExtension() + "\"")
+                .body(body);
     }
 
     @PostMapping("/{admissionNumber}/resume-drive-link")
@@ -6,6 +6,7 @@ import com.PlacementPortal.Placement.Sarthi.entity.Student;
 import com.PlacementPortal.Placement.Sarthi.repository.EventRepository;
 import com.PlacementPortal.Placement.Sarthi.repository.ParticipationRepository;
 import com.PlacementPortal.Placement.Sarthi.repository.StudentRepository;
+import com.PlacementPortal.Placement.Sarthi.service.QueryPlanReport;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -26,6 +27,28 @@ public class StudentReportController {
     @Autowired
     private ParticipationRepository participationRepository;
 
+    @Autowired
+    private QueryPlanReport queryPlanReport;
+
+    // explain() of every known query shape; any entry with collectionScan=true is missing an index
+    @GetMapping("/query-plans")
+    public ResponseEntity<Map<String, Object>> getQueryPlans() {
+        try {
+            List<Map<String, Object>> plans = queryPlanReport.explainAll();
+            long collectionScans = plans.stream().filter(plan -> Boolean.TRUE.equals(plan.get("collectionScan"))).count();
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "collectionScans", collectionScans,
+                    "plans", plans
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of(
+                    "success", false,
+                    "message", "Error explaining queries: " + e.getMessage()
+            ));
+        }
+    }
+
     @GetMapping("/student/{admissionNumber}")
     public ResponseEntity<Map<String, Object>> getStudentReport(
             @PathVariable String admissionNumber) {
@@ -1,8 +1,10 @@
 package com.PlacementPortal.Placement.Sarthi.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -32,6 +34,9 @@ public class Admin {
 
     private LocalDateTime lastLogin;
 
+    // Only carried in requests; the hash is stored in the principals collection
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
 
     private LocalDateTime createdAt;
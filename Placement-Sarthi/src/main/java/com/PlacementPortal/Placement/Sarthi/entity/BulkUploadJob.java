@@ -0,0 +1,78 @@
+package com.PlacementPortal.Placement.Sarthi.entity;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@Document(collection = "bulk_upload_jobs")
+public class BulkUploadJob {
+
+    @Id
+    private String jobId;
+
+    private String fileName;
+
+    // GridFS id of the stored upload, removed once the job has finished
+    private String uploadFileId;
+
+    // GridFS id of the CSV error report
+    private String errorReportFileId;
+
+    private ImportMode mode = ImportMode.INSERT;
+
+    @Indexed
+    private JobStatus status = JobStatus.QUEUED;
+
+    // Data rows declared by the sheet, when the file format exposes it
+    private Integer expectedRows;
+
+    private int rowsProcessed;
+
+    private int rowsSucceeded;
+
+    private int rowsFailed;
+
+    // Set when an UPSERT job completes
+    private Integer rowsInserted;
+
+    private Integer rowsUpdated;
+
+    private Integer rowsUnchanged;
+
+    private double rowsPerSecond;
+
+    private String message;
+
+    // Node that claimed the job; it refreshes heartbeatAt while the job runs
+    private String owner;
+
+    private LocalDateTime heartbeatAt;
+
+    private LocalDateTime startedAt;
+
+    // The job document expires student.import.job-retention after this (TTL index)
+    private LocalDateTime finishedAt;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    public enum JobStatus {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    public void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    public void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
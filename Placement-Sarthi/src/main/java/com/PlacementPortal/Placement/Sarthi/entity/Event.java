@@ -3,14 +3,17 @@ package com.PlacementPortal.Placement.Sarthi.entity;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 
 @Data
 @NoArgsConstructor
 @Document(collection = "events")
+@CompoundIndex(name = "company_status_start_idx", def = "{'organizingCompanyKey': 1, 'status': 1, 'registrationStart': -1}")
 public class Event {
 
     @Id
@@ -20,6 +23,9 @@ public class Event {
 
     private String organizingCompany;
 
+    // Normalised organizingCompany (see companyKey), kept in sync by onCreate/onUpdate for indexed lookups
+    private String organizingCompanyKey;
+
     private Double expectedCgpa;
 
     private String jobRole;
@@ -51,11 +57,21 @@ public class Event {
     }
 
     public void onCreate() {
+        organizingCompanyKey = companyKey(organizingCompany);
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
     }
 
     public void onUpdate() {
+        organizingCompanyKey = companyKey(organizingCompany);
         updatedAt = LocalDateTime.now();
     }
+
+    // Lower-cased, trimmed, single-spaced company name: "  Tata  Consultancy " -> "tata consultancy"
+    public static String companyKey(String companyName) {
+        if (companyName == null) {
+            return null;
+        }
+        return companyName.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+package com.PlacementPortal.Placement.Sarthi.entity;
+
+// INSERT rejects admission numbers that already exist, UPSERT updates their changed fields instead
+public enum ImportMode {
+    INSERT, UPSERT
+}
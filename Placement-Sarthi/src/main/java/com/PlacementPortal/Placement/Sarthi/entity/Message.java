@@ -3,7 +3,9 @@ package com.PlacementPortal.Placement.Sarthi.entity;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TextScore;
 
 import java.time.LocalDateTime;
 
@@ -15,12 +17,17 @@ public class Message {
     @Id
     private String id;
 
+    // One text index over these fields; a match in the subject ranks above one in the body
+    @TextIndexed(weight = 2)
     private String senderName;
 
+    @TextIndexed(weight = 2)
     private String senderEmail;
 
+    @TextIndexed(weight = 3)
     private String subject;
 
+    @TextIndexed
     private String message;
 
     private String status = "unread";
@@ -29,6 +36,10 @@ public class Message {
 
     private LocalDateTime updatedAt;
 
+    // Relevance of a text search hit; not stored
+    @TextScore
+    private Float score;
+
     public void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
@@ -4,6 +4,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -11,7 +12,12 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @Document(collection = "participations")
-@CompoundIndex(name = "student_event_idx", def = "{'studentAdmissionNumber': 1, 'eventId': 1}", unique = true)
+@CompoundIndexes({
+        @CompoundIndex(name = "student_event_idx", def = "{'studentAdmissionNumber': 1, 'eventId': 1}", unique = true),
+        // Per-event work (bulk status changes, counts, exports, deletes) and company-wide listings
+        @CompoundIndex(name = "event_status_idx", def = "{'eventId': 1, 'status': 1}"),
+        @CompoundIndex(name = "company_status_idx", def = "{'organizingCompany': 1, 'status': 1}")
+})
 public class Participation {
 
     @Id
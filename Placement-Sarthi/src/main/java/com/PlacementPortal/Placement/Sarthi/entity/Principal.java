@@ -0,0 +1,54 @@
+package com.PlacementPortal.Placement.Sarthi.entity;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Login credentials of a student, admin or company, kept apart from the profile documents.
+ * The id is the composite login name (role:userId), so any login resolves with one indexed lookup.
+ */
+@Data
+@NoArgsConstructor
+@Document(collection = "principals")
+public class Principal {
+
+    @Id
+    private String id;
+
+    private String role;
+
+    private String userId;
+
+    // Alternative login name; only admins sign in by email, so it is unset for other roles
+    @Indexed(unique = true, sparse = true)
+    private String email;
+
+    private String passwordHash;
+
+    private List<String> authorities;
+
+    private boolean enabled = true;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    public static String key(String role, String userId) {
+        return role + ":" + userId;
+    }
+
+    public void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    public void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
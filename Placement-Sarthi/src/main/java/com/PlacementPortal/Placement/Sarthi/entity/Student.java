@@ -1,8 +1,12 @@
 package com.PlacementPortal.Placement.Sarthi.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
@@ -11,6 +15,13 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @Document(collection = "students")
+// Filter indexes in equality-sort-range order: department/batch equality first, then the cgpa and backlog ranges
+@CompoundIndexes({
+        @CompoundIndex(name = "dept_batch_cgpa_backlogs_idx", def = "{'department': 1, 'batch': 1, 'cgpa': 1, 'backLogsCount': 1}"),
+        @CompoundIndex(name = "dept_cgpa_backlogs_idx", def = "{'department': 1, 'cgpa': 1, 'backLogsCount': 1}"),
+        @CompoundIndex(name = "batch_cgpa_backlogs_idx", def = "{'batch': 1, 'cgpa': 1, 'backLogsCount': 1}"),
+        @CompoundIndex(name = "cgpa_backlogs_idx", def = "{'cgpa': 1, 'backLogsCount': 1}")
+})
 public class Student {
 
     @Id
@@ -58,6 +69,9 @@ public class Student {
 
     private String studentEnrollmentNo;
 
+    // Only carried in requests; the hash is stored in the principals collection
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
 
     private LocalDateTime lastLogin;
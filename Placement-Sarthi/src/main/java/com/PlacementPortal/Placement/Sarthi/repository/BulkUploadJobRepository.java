@@ -0,0 +1,12 @@
+package com.PlacementPortal.Placement.Sarthi.repository;
+
+import com.PlacementPortal.Placement.Sarthi.entity.BulkUploadJob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BulkUploadJobRepository extends MongoRepository<BulkUploadJob, String> {
+    List<BulkUploadJob> findByStatus(BulkUploadJob.JobStatus status);
+}
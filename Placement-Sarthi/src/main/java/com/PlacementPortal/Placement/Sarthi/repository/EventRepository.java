@@ -9,7 +9,7 @@ import java.util.List;
 
 @Repository
 public interface EventRepository extends MongoRepository<Event, String> {
-    List<Event> findByOrganizingCompanyContainingIgnoreCase(String companyName);
+    List<Event> findByOrganizingCompanyKey(String organizingCompanyKey);
     List<Event> findByStatus(Event.EventStatus status);
     List<Event> findByRegistrationStartAfter(LocalDateTime date);
     List<Event> findByRegistrationStartBeforeAndRegistrationEndAfter(LocalDateTime startDate, LocalDateTime endDate);
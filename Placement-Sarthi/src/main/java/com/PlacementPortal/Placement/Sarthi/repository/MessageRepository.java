@@ -13,8 +13,5 @@ public interface MessageRepository extends MongoRepository<Message, String> {
 
     List<Message> findByStatusOrderByCreatedAtDesc(String status);
 
-    List<Message> findBySenderEmailContainingIgnoreCaseOrSubjectContainingIgnoreCaseOrMessageContainingIgnoreCase(
-            String email, String subject, String message);
-
     long countByStatus(String status);
 }
\ No newline at end of file
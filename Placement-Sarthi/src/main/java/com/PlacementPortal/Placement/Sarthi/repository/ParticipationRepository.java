@@ -16,6 +16,8 @@ public interface ParticipationRepository extends MongoRepository<Participation,
 
     List<Participation> findByEventId(String eventId);
 
+    long countByEventId(String eventId);
+
     List<Participation> findByOrganizingCompany(String companyName);
 
     Optional<Participation> findByStudentAdmissionNumberAndEventId(String admissionNumber, String eventId);
@@ -0,0 +1,9 @@
+package com.PlacementPortal.Placement.Sarthi.repository;
+
+import com.PlacementPortal.Placement.Sarthi.entity.Principal;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PrincipalRepository extends MongoRepository<Principal, String> {
+}
@@ -6,8 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -19,14 +18,28 @@ public class AdminService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private KeysetPager keysetPager;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private PrincipalService principalService;
+
+    @Autowired
+    private LastLoginTracker lastLoginTracker;
+
     public Admin createAdmin(Admin admin) {
-        admin.setPassword(passwordEncoder.encode(admin.getPassword()));
         admin.onCreate();
-        return adminRepository.save(admin);
+        Admin saved = adminRepository.save(admin);
+        principalService.setPasswordHash(PrincipalService.ROLE_ADMIN, saved.getAdminId(), passwordEncoder.encode(admin.getPassword()));
+        principalService.setEmail(PrincipalService.ROLE_ADMIN, saved.getAdminId(), saved.getEmailAddress());
+        return saved;
     }
 
-    public List<Admin> getAllAdmins() {
-        return adminRepository.findAll();
+    public Map<String, Object> getAdminsPage(String cursor, Integer limit, boolean includeTotal) {
+        return keysetPager.page(Admin.class, cursor, limit, includeTotal);
     }
 
     public Optional<Admin> getAdminById(String adminId) {
@@ -48,50 +61,46 @@ public class AdminService {
             admin.setDepartment(adminDetails.getDepartment());
             admin.setDateOfBirth(adminDetails.getDateOfBirth());
 
-            // Only update password if provided and different
+            admin.onUpdate();
+            Admin saved = adminRepository.save(admin);
+
+            // Only update password if provided
             if (adminDetails.getPassword() != null && !adminDetails.getPassword().isEmpty()) {
-                if (!adminDetails.getPassword().startsWith("$2a$")) {
-                    admin.setPassword(passwordEncoder.encode(adminDetails.getPassword()));
-                }
+                principalService.setPasswordHash(PrincipalService.ROLE_ADMIN, adminId, passwordEncoder.encode(adminDetails.getPassword()));
             }
-
-            admin.onUpdate();
-            return adminRepository.save(admin);
+            principalService.setEmail(PrincipalService.ROLE_ADMIN, adminId, saved.getEmailAddress());
+            userDetailsService.evict(PrincipalService.ROLE_ADMIN, adminId);
+            return saved;
         }
         return null;
     }
 
     public void deleteAdmin(String adminId) {
         adminRepository.deleteById(adminId);
+        principalService.delete(PrincipalService.ROLE_ADMIN, adminId);
+        userDetailsService.evict(PrincipalService.ROLE_ADMIN, adminId);
     }
 
     public boolean adminExists(String emailAddress) {
         return adminRepository.existsByEmailAddress(emailAddress);
     }
 
+    // Buffered; written by the next LastLoginTracker flush
     public void updateLastLogin(String adminId) {
-        Optional<Admin> optionalAdmin = adminRepository.findById(adminId);
-        if (optionalAdmin.isPresent()) {
-            Admin admin = optionalAdmin.get();
-            admin.setLastLogin(LocalDateTime.now());
-            adminRepository.save(admin);
-        }
+        lastLoginTracker.record(PrincipalService.ROLE_ADMIN, adminId);
     }
 
     public boolean changePassword(String adminId, String currentPassword, String newPassword) {
-        Optional<Admin> adminOpt = adminRepository.findById(adminId);
-        if (adminOpt.isEmpty()) {
+        if (!adminRepository.existsById(adminId)) {
             throw new RuntimeException("Admin not found");
         }
 
-        Admin admin = adminOpt.get();
-        if (!passwordEncoder.matches(currentPassword, admin.getPassword())) {
+        if (!principalService.matches(PrincipalService.ROLE_ADMIN, adminId, currentPassword)) {
             return false;
         }
 
-        admin.setPassword(passwordEncoder.encode(newPassword));
-        admin.onUpdate();
-        adminRepository.save(admin);
+        principalService.setPasswordHash(PrincipalService.ROLE_ADMIN, adminId, passwordEncoder.encode(newPassword));
+        userDetailsService.evict(PrincipalService.ROLE_ADMIN, adminId);
         return true;
     }
 }
\ No newline at end of file
@@ -7,7 +7,15 @@ import com.PlacementPortal.Placement.Sarthi.repository.ParticipationRepository;
 import com.PlacementPortal.Placement.Sarthi.repository.StudentRepository;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -15,9 +23,13 @@ import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class BulkOperationsService {
@@ -31,6 +43,108 @@ public class BulkOperationsService {
     @Autowired
     private ParticipationRepository participationRepository;
 
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    // Outcome of one recruitment round: existing participations moved forward, rejected, and newly created
+    public record RoundResult(long updatedCount, long rejectedCount, int newRegistrations) {
+    }
+
+    /**
+     * Applies one recruitment round to an event with a constant number of round-trips, whatever the
+     * number of registrants: one updateMany ($in) for the students moving forward, one updateMany
+     * ($nin plus a status guard) rejecting everyone else still in a rejectable status, and, when
+     * createMissing is set, one unordered bulk insert for forward students without a participation.
+     */
+    public RoundResult applyRound(String eventId, List<String> forwardAdmissionNumbers,
+                                  Participation.ParticipationStatus forwardStatus, String forwardDescription,
+                                  Collection<Participation.ParticipationStatus> rejectableStatuses, String rejectionDescription,
+                                  boolean createMissing) {
+        Set<String> forward = new LinkedHashSet<>(forwardAdmissionNumbers);
+        LocalDateTime now = LocalDateTime.now();
+
+        Set<String> missing = new LinkedHashSet<>();
+        if (createMissing) {
+            Query existingQuery = new Query(Criteria.where("eventId").is(eventId).and("studentAdmissionNumber").in(forward));
+            existingQuery.fields().include("studentAdmissionNumber");
+            Set<String> existing = new HashSet<>();
+            for (Participation participation : mongoTemplate.find(existingQuery, Participation.class)) {
+                existing.add(participation.getStudentAdmissionNumber());
+            }
+            for (String admissionNumber : forward) {
+                if (!existing.contains(admissionNumber)) {
+                    missing.add(admissionNumber);
+                }
+            }
+        }
+
+        long updatedCount = mongoTemplate.updateMulti(
+                new Query(Criteria.where("eventId").is(eventId).and("studentAdmissionNumber").in(forward)),
+                new Update().set("status", forwardStatus.name()).set("eventDescription", forwardDescription).set("updatedAt", now),
+                Participation.class).getMatchedCount();
+
+        long rejectedCount = mongoTemplate.updateMulti(
+                new Query(Criteria.where("eventId").is(eventId)
+                        .and("studentAdmissionNumber").nin(forward)
+                        .and("status").in(rejectableStatuses.stream().map(Enum::name).toList())),
+                new Update().set("status", Participation.ParticipationStatus.REJECTED.name())
+                        .set("eventDescription", rejectionDescription).set("updatedAt", now),
+                Participation.class).getModifiedCount();
+
+        int newRegistrations = missing.isEmpty() ? 0 : insertParticipations(eventId, missing, forwardStatus, forwardDescription);
+
+        return new RoundResult(updatedCount, rejectedCount, newRegistrations);
+    }
+
+    // Unordered, so a participation created concurrently (unique student_event_idx) only skips that row
+    private int insertParticipations(String eventId, Collection<String> admissionNumbers,
+                                     Participation.ParticipationStatus status, String description) {
+        List<Participation> participations = new ArrayList<>(admissionNumbers.size());
+        for (String admissionNumber : admissionNumbers) {
+            Participation participation = new Participation(admissionNumber, eventId, description);
+            participation.setParticipationStatus(status);
+            participations.add(participation);
+        }
+
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Participation.class);
+        bulkOps.insert(participations);
+
+        List<BulkWriteError> errors;
+        try {
+            bulkOps.execute();
+            errors = List.of();
+        } catch (BulkOperationException e) {
+            errors = e.getErrors();
+        } catch (RuntimeException e) {
+            // Depending on the error, the driver exception may arrive translated (e.g. DuplicateKeyException)
+            errors = null;
+            for (Throwable cause = e.getCause(); cause != null && errors == null; cause = cause.getCause()) {
+                if (cause instanceof MongoBulkWriteException bulkWriteException) {
+                    errors = bulkWriteException.getWriteErrors();
+                }
+            }
+            if (errors == null) {
+                throw e;
+            }
+        }
+
+        for (BulkWriteError error : errors) {
+            if (error.getCode() != DUPLICATE_KEY_ERROR) {
+                throw new RuntimeException("Error creating participation for "
+                        + participations.get(error.getIndex()).getStudentAdmissionNumber() + ": " + error.getMessage());
+            }
+        }
+        return participations.size() - errors.size();
+    }
+
     public List<String> extractAdmissionNumbersFromExcel(MultipartFile file) {
         List<String> admissionNumbers = new ArrayList<>();
 
@@ -83,6 +197,8 @@ public class BulkOperationsService {
             oaEvent.onCreate();
 
             Event savedEvent = eventRepository.save(oaEvent);
+            eventService.invalidateCatalogue();
+            searchIndexService.indexEvent(savedEvent);
 
             return createParticipations(request.getStudentAdmissionNumbers(), savedEvent,
                     "Online Assessment Invitation\nAssessment Link: " + request.getOaLink());
@@ -118,6 +234,8 @@ public class BulkOperationsService {
             interviewEvent.onCreate();
 
             Event savedEvent = eventRepository.save(interviewEvent);
+            eventService.invalidateCatalogue();
+            searchIndexService.indexEvent(savedEvent);
 
             return createParticipations(request.getStudentAdmissionNumbers(), savedEvent,
                     "Interview Scheduled\n" + (isOnline ? "Link: " : "Venue: ") + request.getOaLink());
@@ -0,0 +1,94 @@
+package com.PlacementPortal.Placement.Sarthi.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dedicated, bounded worker pool for BCrypt hashing during bulk imports.
+ * Kept separate from the Tomcat threads so an import never hashes on a request thread,
+ * and sized by student.import.hash-pool-size so logins still get CPU while an import runs.
+ */
+@Component
+public class BulkPasswordHasher {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkPasswordHasher.class);
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    // 0 means one thread per available core
+    @Value("${student.import.hash-pool-size:0}")
+    private int poolSize;
+
+    @Value("${student.import.hash-queue-capacity:1000}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    private final LongAdder hashedCount = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        // When the queue is full the submitting (parsing) thread hashes itself, which throttles parsing
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        logger.info("Bulk password hashing pool started with {} threads", threads);
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            String hash = passwordEncoder.encode(rawPassword);
+            hashNanos.add(System.nanoTime() - start);
+            hashedCount.increment();
+            return hash;
+        }, executor);
+    }
+
+    public int getPoolSize() {
+        return executor.getMaximumPoolSize();
+    }
+
+    public Map<String, Object> getStats() {
+        long count = hashedCount.sum();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("poolSize", executor.getMaximumPoolSize());
+        stats.put("activeThreads", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("hashedTotal", count);
+        stats.put("averageHashMillis", count > 0 ? hashNanos.sum() / count / 1_000_000.0 : 0.0);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,394 @@
+package com.PlacementPortal.Placement.Sarthi.service;
+
+import com.PlacementPortal.Placement.Sarthi.entity.BulkUploadJob;
+import com.PlacementPortal.Placement.Sarthi.entity.BulkUploadJob.JobStatus;
+import com.PlacementPortal.Placement.Sarthi.entity.ImportMode;
+import com.PlacementPortal.Placement.Sarthi.repository.BulkUploadJobRepository;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Runs student bulk uploads in the background. The upload is stored in GridFS and the job
+ * state in the bulk_upload_jobs collection, so progress and the final error report survive
+ * a restart of the portal.
+ *
+ * Several nodes may share the collection: a node claims a queued job atomically and stamps it
+ * with its name, then refreshes a heartbeat while it runs. A running job is only given up as
+ * interrupted when its owner restarts or its heartbeat goes stale.
+ *
+ * Uploads are deleted as soon as their job ends. Finished jobs expire through a TTL index on
+ * finishedAt after student.import.job-retention, and a scheduled purge removes error reports and
+ * uploads left behind by a crash once they are older than that.
+ */
+@Service
+public class BulkUploadJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkUploadJobService.class);
+
+    private static final String FINISHED_TTL_INDEX = "finishedAt_ttl";
+
+    @Autowired
+    private BulkUploadJobRepository bulkUploadJobRepository;
+
+    @Autowired
+    private ExcelProcessingService excelProcessingService;
+
+    @Autowired
+    private GridFsTemplate gridFsTemplate;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${student.import.job-threads:1}")
+    private int jobThreads;
+
+    // Must stay the same across restarts of a node; defaults to the host name
+    @Value("${student.import.node-id:}")
+    private String nodeId;
+
+    @Value("${student.import.job-stale-after-seconds:120}")
+    private long staleAfterSeconds;
+
+    @Value("${student.import.job-retention:7d}")
+    private Duration jobRetention;
+
+    private ExecutorService executor;
+
+    // Jobs currently running on this node, kept alive by heartbeat()
+    private final Set<String> runningJobs = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        if (nodeId == null || nodeId.isBlank()) {
+            try {
+                nodeId = InetAddress.getLocalHost().getHostName();
+            } catch (IOException e) {
+                nodeId = "localhost";
+            }
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(jobThreads, runnable -> {
+            Thread thread = new Thread(runnable, "bulk-upload-job-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public BulkUploadJob submit(MultipartFile file, ImportMode mode) throws IOException {
+        ObjectId uploadId;
+        try (InputStream inputStream = file.getInputStream()) {
+            uploadId = gridFsTemplate.store(inputStream, file.getOriginalFilename(), file.getContentType());
+        }
+
+        BulkUploadJob job = new BulkUploadJob();
+        job.setFileName(file.getOriginalFilename());
+        job.setUploadFileId(uploadId.toHexString());
+        job.setMode(mode);
+        job.onCreate();
+        job = bulkUploadJobRepository.save(job);
+
+        String jobId = job.getJobId();
+        executor.submit(() -> runJob(jobId));
+        return job;
+    }
+
+    public BulkUploadJob getJob(String jobId) {
+        return bulkUploadJobRepository.findById(jobId).orElse(null);
+    }
+
+    public GridFsResource getErrorReport(BulkUploadJob job) {
+        if (job.getErrorReportFileId() == null) {
+            return null;
+        }
+        GridFSFile file = findFile(job.getErrorReportFileId());
+        return file != null ? gridFsTemplate.getResource(file) : null;
+    }
+
+    // Status view with throughput and an ETA when the number of rows is known
+    public Map<String, Object> toStatus(BulkUploadJob job) {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("jobId", job.getJobId());
+        status.put("fileName", job.getFileName());
+        status.put("mode", job.getMode().toString());
+        status.put("status", job.getStatus().toString());
+        status.put("expectedRows", job.getExpectedRows());
+        status.put("rowsProcessed", job.getRowsProcessed());
+        status.put("rowsSucceeded", job.getRowsSucceeded());
+        status.put("rowsFailed", job.getRowsFailed());
+        if (job.getMode() == ImportMode.UPSERT) {
+            status.put("rowsInserted", job.getRowsInserted());
+            status.put("rowsUpdated", job.getRowsUpdated());
+            status.put("rowsUnchanged", job.getRowsUnchanged());
+        }
+        status.put("rowsPerSecond", job.getRowsPerSecond());
+
+        Long etaSeconds = null;
+        if (job.getStatus() == JobStatus.RUNNING && job.getExpectedRows() != null && job.getRowsPerSecond() > 0) {
+            etaSeconds = (long) Math.ceil(Math.max(0, job.getExpectedRows() - job.getRowsProcessed()) / job.getRowsPerSecond());
+        }
+        status.put("etaSeconds", etaSeconds);
+        status.put("message", job.getMessage());
+        status.put("errorReportAvailable", job.getErrorReportFileId() != null);
+        status.put("createdAt", job.getCreatedAt() != null ? job.getCreatedAt().toString() : "");
+        status.put("startedAt", job.getStartedAt() != null ? job.getStartedAt().toString() : "");
+        status.put("finishedAt", job.getFinishedAt() != null ? job.getFinishedAt().toString() : "");
+        return status;
+    }
+
+    // Jobs that were running when the portal stopped cannot be resumed safely; queued ones are restarted
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverJobs() {
+        try {
+            // Jobs this node ran before it restarted, and jobs from before owners were recorded
+            failInterruptedJobs(Criteria.where("owner").is(nodeId));
+            failInterruptedJobs(Criteria.where("owner").exists(false));
+            failInterruptedJobs(Criteria.where("heartbeatAt").lt(staleBefore()));
+
+            for (BulkUploadJob job : bulkUploadJobRepository.findByStatus(JobStatus.QUEUED)) {
+                String jobId = job.getJobId();
+                executor.submit(() -> runJob(jobId));
+            }
+        } catch (Exception e) {
+            logger.error("Could not recover bulk upload jobs: {}", e.getMessage());
+        }
+    }
+
+    // (Re)creates the TTL index on finishedAt when the configured retention changed since it was built
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        Index ttlIndex = new Index().on("finishedAt", Sort.Direction.ASC).named(FINISHED_TTL_INDEX).expire(jobRetention);
+        try {
+            IndexOperations indexOps = mongoTemplate.indexOps(BulkUploadJob.class);
+            try {
+                indexOps.ensureIndex(ttlIndex);
+            } catch (Exception e) {
+                logger.info("Rebuilding bulk upload job TTL index for a retention of {}", jobRetention);
+                indexOps.dropIndex(FINISHED_TTL_INDEX);
+                indexOps.ensureIndex(ttlIndex);
+            }
+        } catch (Exception e) {
+            logger.error("Could not create the bulk upload job TTL index: {}", e.getMessage());
+        }
+    }
+
+    // Error reports past the retention, and uploads a crash left behind; only queued and running jobs still need theirs
+    @Scheduled(fixedDelayString = "${student.import.cleanup-interval-ms:3600000}")
+    public void purgeExpiredFiles() {
+        try {
+            Query unfinished = new Query(Criteria.where("status").in(JobStatus.QUEUED, JobStatus.RUNNING)
+                    .and("uploadFileId").ne(null));
+            unfinished.fields().include("uploadFileId");
+            List<ObjectId> inUse = mongoTemplate.find(unfinished, BulkUploadJob.class).stream()
+                    .map(job -> new ObjectId(job.getUploadFileId()))
+                    .collect(Collectors.toList());
+
+            Date cutoff = Date.from(Instant.now().minus(jobRetention));
+            gridFsTemplate.delete(new Query(Criteria.where("uploadDate").lt(cutoff).and("_id").nin(inUse)));
+        } catch (Exception e) {
+            logger.error("Could not purge old bulk upload files: {}", e.getMessage());
+        }
+    }
+
+    // Keeps this node's jobs alive and gives up jobs whose node stopped without restarting
+    @Scheduled(fixedDelayString = "${student.import.job-heartbeat-ms:30000}")
+    public void heartbeat() {
+        try {
+            if (!runningJobs.isEmpty()) {
+                mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(runningJobs).and("owner").is(nodeId)),
+                        new Update().set("heartbeatAt", LocalDateTime.now()), BulkUploadJob.class);
+            }
+            failInterruptedJobs(Criteria.where("heartbeatAt").lt(staleBefore()));
+        } catch (Exception e) {
+            logger.error("Bulk upload job heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    private void failInterruptedJobs(Criteria criteria) {
+        Query query = new Query(new Criteria().andOperator(Criteria.where("status").is(JobStatus.RUNNING), criteria));
+        for (BulkUploadJob job : mongoTemplate.find(query, BulkUploadJob.class)) {
+            if (runningJobs.contains(job.getJobId())) {
+                continue;
+            }
+            // Only the node whose conditional update wins cleans up the upload
+            Query claim = new Query(Criteria.where("_id").is(job.getJobId())
+                    .and("status").is(JobStatus.RUNNING)
+                    .and("heartbeatAt").is(job.getHeartbeatAt()));
+            Update update = new Update()
+                    .set("status", JobStatus.FAILED)
+                    .set("message", "Interrupted by a server restart after " + job.getRowsProcessed()
+                            + " rows. Rows already imported are kept; upload the remaining rows again.")
+                    .set("finishedAt", LocalDateTime.now())
+                    .set("updatedAt", LocalDateTime.now());
+            if (mongoTemplate.updateFirst(claim, update, BulkUploadJob.class).getModifiedCount() > 0) {
+                deleteFile(job.getUploadFileId());
+            }
+        }
+    }
+
+    private LocalDateTime staleBefore() {
+        return LocalDateTime.now().minusSeconds(staleAfterSeconds);
+    }
+
+    private void runJob(String jobId) {
+        // Atomic QUEUED -> RUNNING, so a job resubmitted by several nodes runs once
+        LocalDateTime startedAt = LocalDateTime.now();
+        BulkUploadJob job = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(jobId).and("status").is(JobStatus.QUEUED)),
+                new Update()
+                        .set("status", JobStatus.RUNNING)
+                        .set("owner", nodeId)
+                        .set("startedAt", startedAt)
+                        .set("heartbeatAt", startedAt)
+                        .set("updatedAt", startedAt),
+                FindAndModifyOptions.options().returnNew(true),
+                BulkUploadJob.class);
+        if (job == null) {
+            return;
+        }
+        runningJobs.add(jobId);
+
+        try {
+            GridFSFile upload = findFile(job.getUploadFileId());
+            if (upload == null) {
+                throw new IOException("Uploaded file is no longer available");
+            }
+
+            long startNanos = System.nanoTime();
+            Map<String, Object> result;
+            try (InputStream inputStream = gridFsTemplate.getResource(upload).getInputStream()) {
+                result = excelProcessingService.processBulkUpload(inputStream, job.getFileName(), job.getMode(),
+                        (processed, succeeded, failed, expectedRows) -> updateJob(jobId, new Update()
+                                .set("rowsProcessed", processed)
+                                .set("rowsSucceeded", succeeded)
+                                .set("rowsFailed", failed)
+                                .set("expectedRows", expectedRows)
+                                .set("rowsPerSecond", rate(processed, startNanos))));
+            }
+
+            @SuppressWarnings("unchecked")
+            List<Map<String, String>> errors = (List<Map<String, String>>) result.getOrDefault("errors", List.of());
+            boolean success = Boolean.TRUE.equals(result.get("success"));
+            int succeeded = success ? (Integer) result.get("successfulCount") : 0;
+
+            Update update = new Update()
+                    .set("status", success ? JobStatus.COMPLETED : JobStatus.FAILED)
+                    .set("rowsProcessed", succeeded + errors.size())
+                    .set("rowsSucceeded", succeeded)
+                    .set("rowsFailed", errors.size())
+                    .set("rowsPerSecond", rate(succeeded + errors.size(), startNanos))
+                    .set("message", result.get("message"))
+                    .set("finishedAt", LocalDateTime.now());
+            if (job.getMode() == ImportMode.UPSERT && success) {
+                update.set("rowsInserted", result.get("insertedCount"))
+                        .set("rowsUpdated", result.get("updatedCount"))
+                        .set("rowsUnchanged", result.get("unchangedCount"));
+            }
+            if (!errors.isEmpty()) {
+                update.set("errorReportFileId", storeErrorReport(job, errors));
+            }
+            updateJob(jobId, update);
+
+            logger.info("Bulk upload job {} finished in {}: {}", jobId,
+                    Duration.between(startedAt, LocalDateTime.now()), result.get("message"));
+        } catch (Exception e) {
+            logger.error("Bulk upload job {} failed: {}", jobId, e.getMessage());
+            updateJob(jobId, new Update()
+                    .set("status", JobStatus.FAILED)
+                    .set("message", "Error processing file: " + e.getMessage())
+                    .set("finishedAt", LocalDateTime.now()));
+        } finally {
+            runningJobs.remove(jobId);
+            deleteFile(job.getUploadFileId());
+        }
+    }
+
+    // One line per failing field: row, field, message
+    private String storeErrorReport(BulkUploadJob job, List<Map<String, String>> errors) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)) {
+            CsvWriter csv = new CsvWriter(writer);
+            csv.writeRow("row", "field", "message");
+            for (Map<String, String> error : errors) {
+                String row = error.get("row");
+                for (Map.Entry<String, String> entry : error.entrySet()) {
+                    if (!"row".equals(entry.getKey())) {
+                        csv.writeRow(row, entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+        }
+
+        ObjectId reportId = gridFsTemplate.store(new ByteArrayInputStream(outputStream.toByteArray()),
+                "bulk_upload_errors_" + job.getJobId() + ".csv", "text/csv");
+        return reportId.toHexString();
+    }
+
+    private void updateJob(String jobId, Update update) {
+        update.set("updatedAt", LocalDateTime.now()).set("heartbeatAt", LocalDateTime.now());
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(jobId)), update, BulkUploadJob.class);
+    }
+
+    private double rate(int rows, long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        return seconds > 0 ? Math.round(rows / seconds * 10) / 10.0 : 0.0;
+    }
+
+    private GridFSFile findFile(String fileId) {
+        return gridFsTemplate.findOne(new Query(Criteria.where("_id").is(new ObjectId(fileId))));
+    }
+
+    private void deleteFile(String fileId) {
+        if (fileId != null) {
+            gridFsTemplate.delete(new Query(Criteria.where("_id").is(new ObjectId(fileId))));
+        }
+    }
+}
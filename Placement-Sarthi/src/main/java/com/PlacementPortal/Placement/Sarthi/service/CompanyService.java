@@ -7,6 +7,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -18,6 +19,18 @@ public class CompanyService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private KeysetPager keysetPager;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private PrincipalService principalService;
+
     public Company getCompanyById(String companyId) {
         return companyRepository.findByCompanyId(companyId).orElse(null);
     }
@@ -27,13 +40,15 @@ public class CompanyService {
     }
 
     public Company createCompany(Company company) {
-        company.setPassword(passwordEncoder.encode(company.getPassword()));
         company.onCreate();
-        return companyRepository.save(company);
+        Company saved = companyRepository.save(company);
+        principalService.setPasswordHash(PrincipalService.ROLE_COMPANY, saved.getCompanyId(), passwordEncoder.encode(company.getPassword()));
+        searchIndexService.indexCompany(saved);
+        return saved;
     }
 
-    public List<Company> getAllCompanies() {
-        return companyRepository.findAll();
+    public Map<String, Object> getCompaniesPage(String cursor, Integer limit, boolean includeTotal) {
+        return keysetPager.page(Company.class, cursor, limit, includeTotal);
     }
 
     public Company updateCompany(String companyId, Company companyDetails) {
@@ -46,21 +61,27 @@ public class CompanyService {
             company.setHrPhone(companyDetails.getHrPhone());
             company.setPhotoLink(companyDetails.getPhotoLink());
 
+            company.onUpdate();
+            Company saved = companyRepository.save(company);
+
             if (companyDetails.getPassword() != null && !companyDetails.getPassword().isEmpty()) {
-                if (!companyDetails.getPassword().startsWith("$2a$")) {
-                    company.setPassword(passwordEncoder.encode(companyDetails.getPassword()));
-                }
+                principalService.setPasswordHash(PrincipalService.ROLE_COMPANY, companyId, passwordEncoder.encode(companyDetails.getPassword()));
+                userDetailsService.evict(PrincipalService.ROLE_COMPANY, companyId);
             }
-
-            company.onUpdate();
-            return companyRepository.save(company);
+            searchIndexService.indexCompany(saved);
+            return saved;
         }
         return null;
     }
 
     public void deleteCompany(String companyId) {
         Optional<Company> company = companyRepository.findByCompanyId(companyId);
-        company.ifPresent(companyRepository::delete);
+        company.ifPresent(existing -> {
+            companyRepository.delete(existing);
+            principalService.delete(PrincipalService.ROLE_COMPANY, existing.getCompanyId());
+            userDetailsService.evict(PrincipalService.ROLE_COMPANY, existing.getCompanyId());
+            searchIndexService.remove(SearchIndexService.TYPE_COMPANY, existing.getCompanyId());
+        });
     }
 
     public boolean companyExists(String companyName) {
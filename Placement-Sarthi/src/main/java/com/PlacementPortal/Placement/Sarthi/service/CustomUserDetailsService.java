@@ -1,33 +1,50 @@
 package com.PlacementPortal.Placement.Sarthi.service;
 
-import com.PlacementPortal.Placement.Sarthi.entity.Admin;
-import com.PlacementPortal.Placement.Sarthi.entity.Company;
-import com.PlacementPortal.Placement.Sarthi.entity.Student;
-import com.PlacementPortal.Placement.Sarthi.repository.AdminRepository;
-import com.PlacementPortal.Placement.Sarthi.repository.CompanyRepository;
-import com.PlacementPortal.Placement.Sarthi.repository.StudentRepository;
+import com.PlacementPortal.Placement.Sarthi.entity.Principal;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
-import java.util.Optional;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
-    private StudentRepository studentRepository;
-
-    @Autowired
-    private AdminRepository adminRepository;
-
-    @Autowired
-    private CompanyRepository companyRepository;
+    private PrincipalService principalService;
+
+    @Value("${security.user-cache.ttl-seconds:60}")
+    private long cacheTtlSeconds;
+
+    @Value("${security.user-cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    /*
+     * Keyed by role:identifier as typed at login, so an admin may be cached under both the email
+     * and the id. Misses (unknown users) are not cached. Every password change or delete must
+     * call evict(); the short TTL only covers changes made by another instance.
+     */
+    private Cache<String, UserDetails> userCache;
+
+    @PostConstruct
+    public void initCache() {
+        userCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .recordStats()
+                .build();
+    }
 
     @Override
     public UserDetails loadUserByUsername(String compositeUsername) throws UsernameNotFoundException {
@@ -39,81 +56,63 @@ public class CustomUserDetailsService implements UserDetailsService {
         String role = parts[0].trim().toLowerCase();
         String userId = parts[1].trim();
 
-        switch (role) {
-            case "student":
-                return loadStudent(userId);
-            case "admin":
-                return loadAdmin(userId);
-            case "company":
-                return loadCompany(userId);
-            default:
-                throw new UsernameNotFoundException("Unknown role: " + role);
-        }
-    }
-
-    private UserDetails loadStudent(String admissionNumber) {
-        Optional<Student> studentOpt = studentRepository.findByStudentAdmissionNumber(admissionNumber);
-
-        if (studentOpt.isEmpty()) {
-            throw new UsernameNotFoundException("Student not found: " + admissionNumber);
-        }
-
-        Student student = studentOpt.get();
+        UserDetails cached = userCache.get(role + ":" + userId, key -> loadFromDatabase(role, userId));
 
-        if (student.getPassword() == null || student.getPassword().isEmpty()) {
-            throw new UsernameNotFoundException("Student account not properly configured");
-        }
-
-        return new User(
-                "student:" + student.getStudentAdmissionNumber(),
-                student.getPassword(),
-                Collections.singletonList(new SimpleGrantedAuthority("ROLE_STUDENT"))
-        );
+        // The authentication manager erases the password of the returned object, so never hand out the cached one
+        return User.withUserDetails(cached).build();
     }
 
-    private UserDetails loadAdmin(String identifier) {
-        // Try by email first
-        Optional<Admin> adminOpt = adminRepository.findByEmailAddress(identifier);
-
-        // If not found by email, try by ID (String in MongoDB)
-        if (adminOpt.isEmpty()) {
-            adminOpt = adminRepository.findById(identifier);
-        }
-
-        if (adminOpt.isEmpty()) {
-            throw new UsernameNotFoundException("Admin not found: " + identifier);
-        }
-
-        Admin admin = adminOpt.get();
+    // Called by DaoAuthenticationProvider with a fresh hash when the stored one has a different BCrypt cost
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        String[] parts = user.getUsername().split(":", 2);
+        principalService.setPasswordHash(parts[0], parts[1], newPassword);
+        evict(parts[0], parts[1]);
+        return User.withUserDetails(user).password(newPassword).build();
+    }
 
-        if (admin.getPassword() == null || admin.getPassword().isEmpty()) {
-            throw new UsernameNotFoundException("Admin account not properly configured");
+    // Drops every cached entry of the user, including the admin alias cached under the email address
+    public void evict(String role, String userId) {
+        if (userId == null) {
+            return;
         }
-
-        return new User(
-                "admin:" + admin.getAdminId(),
-                admin.getPassword(),
-                Collections.singletonList(new SimpleGrantedAuthority("ROLE_ADMIN"))
-        );
+        String username = role + ":" + userId;
+        userCache.invalidate(username);
+        userCache.asMap().values().removeIf(details -> username.equals(details.getUsername()));
     }
 
-    private UserDetails loadCompany(String companyId) {
-        Optional<Company> companyOpt = companyRepository.findByCompanyId(companyId);
+    public Map<String, Object> getCacheStats() {
+        CacheStats stats = userCache.stats();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRatio", stats.hitRate());
+        result.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        result.put("evictionCount", stats.evictionCount());
+        result.put("size", userCache.estimatedSize());
+        return result;
+    }
 
-        if (companyOpt.isEmpty()) {
-            throw new UsernameNotFoundException("Company not found: " + companyId);
+    // One indexed lookup in principals, whatever the role; the profile is only read for unmigrated accounts
+    private UserDetails loadFromDatabase(String role, String userId) {
+        if (!PrincipalService.ROLE_STUDENT.equals(role) && !PrincipalService.ROLE_ADMIN.equals(role)
+                && !PrincipalService.ROLE_COMPANY.equals(role)) {
+            throw new UsernameNotFoundException("Unknown role: " + role);
         }
 
-        Company company = companyOpt.get();
+        Principal principal = principalService.findForLogin(role, userId)
+                .or(() -> principalService.findLegacy(role, userId))
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + role + ":" + userId));
 
-        if (company.getPassword() == null || company.getPassword().isEmpty()) {
-            throw new UsernameNotFoundException("Company account not properly configured");
+        if (principal.getPasswordHash() == null || principal.getPasswordHash().isEmpty()) {
+            throw new UsernameNotFoundException("Account not properly configured");
         }
 
-        return new User(
-                "company:" + company.getCompanyId(),
-                company.getPassword(),
-                Collections.singletonList(new SimpleGrantedAuthority("ROLE_COMPANY"))
-        );
+        return User.withUsername(principal.getId())
+                .password(principal.getPasswordHash())
+                .authorities(principal.getAuthorities().toArray(String[]::new))
+                .disabled(!principal.isEnabled())
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -3,16 +3,33 @@ package com.PlacementPortal.Placement.Sarthi.service;
 import com.PlacementPortal.Placement.Sarthi.entity.Event;
 import com.PlacementPortal.Placement.Sarthi.repository.EventRepository;
 import com.PlacementPortal.Placement.Sarthi.repository.ParticipationRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 
 @Service
 public class EventService {
@@ -23,19 +40,113 @@ public class EventService {
     @Autowired
     private ParticipationRepository participationRepository;
 
+    @Autowired
+    private KeysetPager keysetPager;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
     private static final Logger logger = LoggerFactory.getLogger(EventService.class);
 
+    private static final String CATALOGUE_KEY = "catalogue";
+
+    // Largest catalogue kept in memory; a bigger one is evicted straight away and read from MongoDB
+    @Value("${event.cache.max-events:5000}")
+    private long maxCachedEvents;
+
+    // Upper bound on staleness when another instance changes the events collection
+    @Value("${event.cache.ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    /*
+     * The whole catalogue is cached as one snapshot list. The Event objects in it are shared by every
+     * caller until the next invalidation, so callers must not mutate them; updateEvent reads its own
+     * copy from the repository. Upcoming/ongoing/past depend on the current time, so they are
+     * filtered from the snapshot on every read instead of being cached.
+     */
+    private Cache<String, Catalogue> catalogueCache;
+
+    // Bumped by every invalidation; a snapshot read before the bump is never served
+    private final AtomicLong catalogueVersion = new AtomicLong();
+
+    private record Catalogue(long version, List<Event> events, Map<String, Event> byId) {
+    }
+
+    @PostConstruct
+    public void initCache() {
+        catalogueCache = Caffeine.newBuilder()
+                .maximumWeight(maxCachedEvents)
+                .<String, Catalogue>weigher((key, catalogue) -> catalogue.events().size())
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    private Catalogue catalogue() {
+        Catalogue catalogue = catalogueCache.get(CATALOGUE_KEY, key -> loadCatalogue());
+        if (catalogue.version() != catalogueVersion.get()) {
+            // An event was written while this snapshot was being read; drop it and read once more
+            catalogueCache.asMap().remove(CATALOGUE_KEY, catalogue);
+            catalogue = catalogueCache.get(CATALOGUE_KEY, key -> loadCatalogue());
+        }
+        return catalogue;
+    }
+
+    private Catalogue loadCatalogue() {
+        long version = catalogueVersion.get();
+        List<Event> events = List.copyOf(eventRepository.findAll());
+        Map<String, Event> byId = new LinkedHashMap<>();
+        for (Event event : events) {
+            byId.put(event.getEventId(), event);
+        }
+        return new Catalogue(version, events, byId);
+    }
+
+    private List<Event> filterCatalogue(Predicate<Event> predicate) {
+        return catalogue().events().stream().filter(predicate).toList();
+    }
+
+    // Must be called after every write to the events collection
+    public void invalidateCatalogue() {
+        catalogueVersion.incrementAndGet();
+        catalogueCache.invalidate(CATALOGUE_KEY);
+    }
+
+    public Map<String, Object> getCacheStats() {
+        CacheStats stats = catalogueCache.stats();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRatio", stats.hitRate());
+        result.put("loadCount", stats.loadCount());
+        result.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        result.put("evictionCount", stats.evictionCount());
+        result.put("cachedEvents", catalogueCache.asMap().values().stream().mapToInt(c -> c.events().size()).sum());
+        return result;
+    }
+
     public Event createEvent(Event event) {
         event.onCreate();
-        return eventRepository.save(event);
+        Event saved = eventRepository.save(event);
+        invalidateCatalogue();
+        searchIndexService.indexEvent(saved);
+        return saved;
     }
 
     public List<Event> getAllEvents() {
-        return eventRepository.findAll();
+        return catalogue().events();
+    }
+
+    public Map<String, Object> getEventsPage(String cursor, Integer limit, boolean includeTotal) {
+        return keysetPager.page(Event.class, cursor, limit, includeTotal);
     }
 
     public Event getEventById(String eventId) {
-        return eventRepository.findById(eventId).orElse(null);
+        return catalogue().byId().get(eventId);
     }
 
     public Event updateEvent(String eventId, Event eventDetails) {
@@ -54,7 +165,10 @@ public class EventService {
             event.setEligibleDepartments(eventDetails.getEligibleDepartments());
             event.setStatus(eventDetails.getStatus());
             event.onUpdate();
-            return eventRepository.save(event);
+            Event saved = eventRepository.save(event);
+            invalidateCatalogue();
+            searchIndexService.indexEvent(saved);
+            return saved;
         }
         return null;
     }
@@ -69,32 +183,73 @@ public class EventService {
             throw new IllegalAccessException("Error deleting participations for event : "+ eventId+ ": "+ e.getMessage());
         }
         eventRepository.deleteById(eventId);
+        invalidateCatalogue();
+        searchIndexService.remove(SearchIndexService.TYPE_EVENT, eventId);
         logger.info("Deleted event: {}", eventId);
     }
 
     public List<Event> getEventsByStatus(Event.EventStatus status) {
-        return eventRepository.findByStatus(status);
+        return filterCatalogue(event -> event.getStatus() == status);
     }
 
+    // Partial names match from the start of the company name, which keeps the regex on the index
     public List<Event> searchEventsByCompany(String companyName) {
-        return eventRepository.findByOrganizingCompanyContainingIgnoreCase(companyName);
+        String key = Event.companyKey(companyName);
+        if (key == null || key.isEmpty()) {
+            return List.of();
+        }
+        return mongoTemplate.find(new Query(companyPrefixCriteria(key)), Event.class);
     }
 
+    // Same boundaries as the derived repository queries (strictly before/after now)
     public List<Event> getUpcomingEvents() {
-        return eventRepository.findByRegistrationStartAfter(LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        return filterCatalogue(event -> event.getRegistrationStart() != null && event.getRegistrationStart().isAfter(now));
     }
 
     public List<Event> getOngoingEvents() {
         LocalDateTime now = LocalDateTime.now();
-        return eventRepository.findByRegistrationStartBeforeAndRegistrationEndAfter(now, now);
+        return filterCatalogue(event -> event.getRegistrationStart() != null && event.getRegistrationStart().isBefore(now)
+                && event.getRegistrationEnd() != null && event.getRegistrationEnd().isAfter(now));
     }
 
     public List<Event> getPastEvents() {
-        return eventRepository.findByRegistrationEndBefore(LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        return filterCatalogue(event -> event.getRegistrationEnd() != null && event.getRegistrationEnd().isBefore(now));
     }
 
     public List<Event> getEventsByCompany(String companyName) {
-        return eventRepository.findByOrganizingCompanyContainingIgnoreCase(companyName);
+        return eventRepository.findByOrganizingCompanyKey(Event.companyKey(companyName));
+    }
+
+    // Case-sensitive anchored regex on the lower-cased key, which MongoDB turns into an index range scan
+    Criteria companyPrefixCriteria(String key) {
+        return Criteria.where("organizingCompanyKey").regex("^" + key.replaceAll("[\\\\^$.|?*+()\\[\\]{}]", "\\\\$0"));
+    }
+
+    // Fills organizingCompanyKey on events stored before the key existed
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillCompanyKeys() {
+        try {
+            Query query = new Query(Criteria.where("organizingCompanyKey").exists(false));
+            query.fields().include("organizingCompany");
+
+            List<Event> events = mongoTemplate.find(query, Event.class);
+            if (events.isEmpty()) {
+                return;
+            }
+
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Event.class);
+            for (Event event : events) {
+                bulkOps.updateOne(new Query(Criteria.where("_id").is(event.getEventId())),
+                        new Update().set("organizingCompanyKey", Event.companyKey(event.getOrganizingCompany())));
+            }
+            bulkOps.execute();
+            invalidateCatalogue();
+            logger.info("Backfilled organizingCompanyKey on {} events", events.size());
+        } catch (Exception e) {
+            logger.error("Could not backfill event company keys: {}", e.getMessage());
+        }
     }
 
     public String generateEventId(String companyName) {
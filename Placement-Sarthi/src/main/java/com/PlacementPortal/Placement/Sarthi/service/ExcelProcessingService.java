@@ -1,12 +1,23 @@
 package com.PlacementPortal.Placement.Sarthi.service;
 
 import com.PlacementPortal.Placement.Sarthi.entity.Gender;
+import com.PlacementPortal.Placement.Sarthi.entity.ImportMode;
 import com.PlacementPortal.Placement.Sarthi.entity.Student;
-import com.PlacementPortal.Placement.Sarthi.repository.StudentRepository;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -14,115 +25,488 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.LocalDate;
-import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 public class ExcelProcessingService {
 
     @Autowired
-    private StudentRepository studentRepository;
+    private MongoTemplate mongoTemplate;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private StudentSheetReader studentSheetReader;
+
+    @Autowired
+    private BulkPasswordHasher bulkPasswordHasher;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private PrincipalService principalService;
+
+    // Valid rows are checked and written to MongoDB as unordered bulk inserts of this size
+    @Value("${student.import.chunk-size:500}")
+    private int chunkSize;
 
     private static final String DEFAULT_PASSWORD = "gehu@123";
 
-    public Map<String, Object> processBulkUpload(MultipartFile file) {
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    // Stored fields that a sheet row never changes (password only exists on profiles not yet migrated to principals)
+    private static final Set<String> UPSERT_IGNORED_FIELDS = Set.of("_id", "_class", "password", "lastLogin");
+
+    private static final Logger logger = LoggerFactory.getLogger(ExcelProcessingService.class);
+
+    // Receives progress after every saved chunk; used by background upload jobs
+    public interface ProgressListener {
+        void onProgress(int rowsProcessed, int rowsSucceeded, int rowsFailed, Integer expectedRows);
+    }
+
+    public Map<String, Object> processBulkUpload(MultipartFile file, ImportMode mode) {
+        try (InputStream inputStream = file.getInputStream()) {
+            return processBulkUpload(inputStream, file.getOriginalFilename(), mode, null);
+        } catch (IOException e) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", "Error processing file: " + e.getMessage());
+            return result;
+        }
+    }
+
+    public Map<String, Object> processBulkUpload(InputStream inputStream, String fileName, ImportMode mode,
+                                                 ProgressListener listener) {
         Map<String, Object> result = new HashMap<>();
-        List<Student> successfulStudents = new ArrayList<>();
-        List<Map<String, String>> errors = new ArrayList<>();
+        ImportRun run = new ImportRun(mode, listener, null);
+
+        try {
+
+            studentSheetReader.read(inputStream, fileName, run);
 
-        try (InputStream inputStream = file.getInputStream();
-             Workbook workbook = new XSSFWorkbook(inputStream)) {
+            // Hash and save whatever is still in flight
+            run.finish();
+            run.errors.sort(Comparator.comparingInt(error -> Integer.parseInt(error.get("row"))));
 
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rows = sheet.iterator();
+            long durationMillis = Math.max(1, (System.nanoTime() - run.startNanos) / 1_000_000);
+            logger.info("Bulk upload of {}: {} students saved, {} errors in {} ms ({} rows/s, {} hashing threads)",
+                    fileName, run.successfulCount, run.errors.size(), durationMillis,
+                    run.successfulCount * 1000L / durationMillis, bulkPasswordHasher.getPoolSize());
 
+            result.put("success", true);
+            result.put("successfulCount", run.successfulCount);
+            result.put("errorCount", run.errors.size());
+            result.put("errors", run.errors);
+            result.put("durationMillis", durationMillis);
+            result.put("rowsPerSecond", run.successfulCount * 1000L / durationMillis);
+            if (mode == ImportMode.UPSERT) {
+                result.put("insertedCount", run.insertedCount);
+                result.put("updatedCount", run.updatedCount);
+                result.put("unchangedCount", run.unchangedCount);
+                result.put("message", String.format("Processed %d students: %d inserted, %d updated, %d unchanged. %d errors found.",
+                        run.successfulCount, run.insertedCount, run.updatedCount, run.unchangedCount, run.errors.size()));
+            } else {
+                result.put("message", String.format("Successfully uploaded %d students. %d errors found.",
+                        run.successfulCount, run.errors.size()));
+            }
+
+        } catch (IOException e) {
+            result.put("success", false);
+            result.put("message", "Error processing file: " + e.getMessage());
+        } catch (Exception e) {
+            result.put("success", false);
+            result.put("message", "Invalid file format or structure: " + e.getMessage());
+        }
+
+        return result;
+    }
+
+    /**
+     * Dry run of an upload: parses and validates every row and runs the in-file and database
+     * duplicate checks, but hashes and writes nothing. Each failing row is passed to errorSink
+     * as soon as it is found; the returned map holds the totals.
+     */
+    public Map<String, Object> validateBulkUpload(InputStream inputStream, String fileName, ImportMode mode,
+                                                  Consumer<Map<String, String>> errorSink) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        ImportRun run = new ImportRun(mode, null, errorSink);
+
+        try {
+            studentSheetReader.read(inputStream, fileName, run);
+            run.finish();
+
+            long durationMillis = Math.max(1, (System.nanoTime() - run.startNanos) / 1_000_000);
+            result.put("success", true);
+            result.put("validCount", run.successfulCount);
+            result.put("errorCount", run.errorCount);
+            result.put("durationMillis", durationMillis);
+            result.put("message", String.format("Validation finished: %d valid rows, %d rows with errors. Nothing was saved.",
+                    run.successfulCount, run.errorCount));
+        } catch (IOException e) {
+            result.put("success", false);
+            result.put("message", "Error processing file: " + e.getMessage());
+        } catch (Exception e) {
+            result.put("success", false);
+            result.put("message", "Invalid file format or structure: " + e.getMessage());
+        }
+
+        return result;
+    }
+
+    // A parsed student together with its spreadsheet row number, for error reporting
+    private record ImportRow(int rowNum, Student student) {
+    }
+
+    /*
+     * State of one upload. Rows are collected into chunks of chunkSize; each full chunk is
+     * checked against the database with one $in query, handed to the hashing pool and saved
+     * once the next chunk is full, so parsing, hashing and persistence overlap while at most
+     * two chunks are held in memory. In UPSERT mode rows whose admission number already exists
+     * are diffed against the stored document instead and only changed fields are written.
+     */
+    private class ImportRun implements StudentSheetReader.RowCallback {
+
+        private final ImportMode mode;
+        private final ProgressListener listener;
+        // When set, the run only validates: errors go to the sink as they are found and nothing is hashed or written
+        private final Consumer<Map<String, String>> errorSink;
+        private final long startNanos = System.nanoTime();
+        private final List<Map<String, String>> errors = new ArrayList<>();
+        // Admission number -> first row it appeared on, to catch duplicates inside the file
+        private final Map<String, Integer> seenAdmissionNumbers = new HashMap<>();
+        private List<ImportRow> chunk = new ArrayList<>();
+        private List<ImportRow> pending = Collections.emptyList();
+        private CompletableFuture<Void> pendingHashes = CompletableFuture.completedFuture(null);
+        private boolean headerSkipped;
+        private int successfulCount;
+        private int errorCount;
+        private int insertedCount;
+        private int updatedCount;
+        private int unchangedCount;
+        private Integer expectedRows;
+
+        ImportRun(ImportMode mode, ProgressListener listener, Consumer<Map<String, String>> errorSink) {
+            this.mode = mode;
+            this.listener = listener;
+            this.errorSink = errorSink;
+        }
+
+        @Override
+        public void onSheetSize(int lastRowNum) {
+            // Everything but the header row
+            expectedRows = Math.max(0, lastRowNum - 1);
+        }
+
+        @Override
+        public void onRow(int rowNum, String[] values) {
             // Skip header row
-            if (rows.hasNext()) {
-                rows.next();
+            if (!headerSkipped) {
+                headerSkipped = true;
+                return;
             }
 
-            int rowNum = 2; // Starting from row 2 (1-based index for user)
+            // Skip empty rows
+            if (isRowEmpty(values)) {
+                return;
+            }
 
-            while (rows.hasNext()) {
-                Row currentRow = rows.next();
+            Map<String, String> rowError = processStudentRow(values, rowNum);
+            if (!rowError.isEmpty()) {
+                addError(rowError);
+                return;
+            }
 
-                // Skip empty rows
-                if (isRowEmpty(currentRow)) {
-                    rowNum++;
-                    continue;
+            try {
+                Student student = createStudentFromRow(values, rowError);
+
+                if (!rowError.isEmpty()) {
+                    rowError.put("row", String.valueOf(rowNum));
+                    addError(rowError);
+                    return;
+                }
+
+                // Check if admission number already appeared earlier in this file
+                Integer firstRow = seenAdmissionNumbers.putIfAbsent(student.getStudentAdmissionNumber(), rowNum);
+                if (firstRow != null) {
+                    rowError.put("admissionNumber", "Duplicate admission number in file (first seen at row " + firstRow + ")");
+                    rowError.put("row", String.valueOf(rowNum));
+                    addError(rowError);
+                    return;
+                }
+
+                chunk.add(new ImportRow(rowNum, student));
+            } catch (Exception e) {
+                rowError.put("general", "Error creating student: " + e.getMessage());
+                rowError.put("row", String.valueOf(rowNum));
+                addError(rowError);
+                return;
+            }
+
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            if (errorSink != null) {
+                // Existing admission numbers are only an error when inserting
+                List<ImportRow> valid = mode == ImportMode.UPSERT ? chunk : rejectExisting(chunk);
+                successfulCount += valid.size();
+                chunk = new ArrayList<>();
+                return;
+            }
+            List<ImportRow> ready = mode == ImportMode.UPSERT ? updateExisting(chunk) : rejectExisting(chunk);
+            chunk = new ArrayList<>();
+
+            CompletableFuture<Void> hashes = hashPasswords(ready);
+            savePending();
+            pending = ready;
+            pendingHashes = hashes;
+        }
+
+        void finish() {
+            flush();
+            savePending();
+        }
+
+        private void addError(Map<String, String> rowError) {
+            errorCount++;
+            if (errorSink != null) {
+                errorSink.accept(rowError);
+            } else {
+                errors.add(rowError);
+            }
+        }
+
+        private void savePending() {
+            if (!pending.isEmpty()) {
+                pendingHashes.join();
+                for (ImportRow row : pending) {
+                    if (row.student().getBackLogsCount() == null) {
+                        row.student().setBackLogsCount(0);
+                    }
+                }
+
+                BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Student.class);
+                bulkOps.insert(pending.stream().map(ImportRow::student).collect(Collectors.toList()));
+
+                List<BulkWriteError> writeErrors = executeUnordered(bulkOps);
+                Set<Integer> failed = new HashSet<>();
+                for (BulkWriteError writeError : writeErrors) {
+                    failed.add(writeError.getIndex());
+                    ImportRow row = pending.get(writeError.getIndex());
+                    Map<String, String> rowError = new HashMap<>();
+                    if (writeError.getCode() == DUPLICATE_KEY_ERROR) {
+                        // Inserted by someone else after the $in check
+                        rowError.put("admissionNumber", "Admission number already exists");
+                    } else {
+                        rowError.put("general", "Error saving student: " + writeError.getMessage());
+                    }
+                    rowError.put("row", String.valueOf(row.rowNum()));
+                    addError(rowError);
                 }
 
-                Map<String, String> rowError = processStudentRow(currentRow, rowNum);
-
-                if (rowError.isEmpty()) {
-                    try {
-                        Student student = createStudentFromRow(currentRow);
-
-                        // Check if admission number already exists
-                        if (studentRepository.existsByStudentAdmissionNumber(student.getStudentAdmissionNumber())) {
-                            rowError.put("admissionNumber", "Admission number already exists");
-                            rowError.put("row", String.valueOf(rowNum));
-                            errors.add(rowError);
-                        } else {
-                            successfulStudents.add(student);
-                        }
-                    } catch (Exception e) {
-                        rowError.put("general", "Error creating student: " + e.getMessage());
-                        rowError.put("row", String.valueOf(rowNum));
-                        errors.add(rowError);
+                Map<String, String> hashes = new HashMap<>();
+                for (int i = 0; i < pending.size(); i++) {
+                    if (!failed.contains(i)) {
+                        Student student = pending.get(i).student();
+                        hashes.put(student.getStudentAdmissionNumber(), student.getPassword());
                     }
+                }
+
+                // A student without a principal could never log in: take the row back out and report it
+                Set<String> withoutLogin = principalService.setPasswordHashes(PrincipalService.ROLE_STUDENT, hashes);
+                if (!withoutLogin.isEmpty()) {
+                    mongoTemplate.remove(new Query(Criteria.where("_id").in(withoutLogin)), Student.class);
+                }
+
+                List<Student> inserted = new ArrayList<>(hashes.size());
+                for (int i = 0; i < pending.size(); i++) {
+                    if (failed.contains(i)) {
+                        continue;
+                    }
+                    ImportRow row = pending.get(i);
+                    if (withoutLogin.contains(row.student().getStudentAdmissionNumber())) {
+                        Map<String, String> rowError = new HashMap<>();
+                        rowError.put("general", "Error creating login for student");
+                        rowError.put("row", String.valueOf(row.rowNum()));
+                        addError(rowError);
+                    } else {
+                        inserted.add(row.student());
+                    }
+                }
+                searchIndexService.indexStudents(inserted);
+
+                insertedCount += inserted.size();
+                successfulCount += inserted.size();
+                pending = Collections.emptyList();
+            }
+
+            if (listener != null) {
+                listener.onProgress(successfulCount + errorCount, successfulCount, errorCount, expectedRows);
+            }
+        }
+
+        // Check if admission numbers already exist - one query for the whole chunk
+        private List<ImportRow> rejectExisting(List<ImportRow> rows) {
+            List<String> admissionNumbers = rows.stream()
+                    .map(row -> row.student().getStudentAdmissionNumber())
+                    .collect(Collectors.toList());
+
+            Query query = new Query(Criteria.where("_id").in(admissionNumbers));
+            query.fields().include("_id");
+            Set<String> existing = mongoTemplate.find(query, Student.class).stream()
+                    .map(Student::getStudentAdmissionNumber)
+                    .collect(Collectors.toSet());
+
+            if (existing.isEmpty()) {
+                return rows;
+            }
+
+            List<ImportRow> accepted = new ArrayList<>(rows.size());
+            for (ImportRow row : rows) {
+                if (existing.contains(row.student().getStudentAdmissionNumber())) {
+                    Map<String, String> rowError = new HashMap<>();
+                    rowError.put("admissionNumber", "Admission number already exists");
+                    rowError.put("row", String.valueOf(row.rowNum()));
+                    addError(rowError);
                 } else {
-                    errors.add(rowError);
+                    accepted.add(row);
                 }
-                rowNum++;
             }
+            return accepted;
+        }
 
-            // Save all successful students
-            if (!successfulStudents.isEmpty()) {
-                studentRepository.saveAll(successfulStudents);
+        /*
+         * Loads the stored documents of the chunk with one $in query and sends a $set of the
+         * changed fields for each existing student, all in one unordered bulk write. Blank cells
+         * leave the stored value untouched. Returns the rows that do not exist yet, to be inserted.
+         */
+        private List<ImportRow> updateExisting(List<ImportRow> rows) {
+            List<String> admissionNumbers = rows.stream()
+                    .map(row -> row.student().getStudentAdmissionNumber())
+                    .collect(Collectors.toList());
+
+            Query query = new Query(Criteria.where("_id").in(admissionNumbers));
+            query.fields().exclude("password").exclude("lastLogin");
+            Map<Object, Document> existing = new HashMap<>();
+            for (Document document : mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(Student.class))) {
+                existing.put(document.get("_id"), document);
             }
 
-            result.put("success", true);
-            result.put("successfulCount", successfulStudents.size());
-            result.put("errorCount", errors.size());
-            result.put("errors", errors);
-            result.put("message", String.format("Successfully uploaded %d students. %d errors found.",
-                    successfulStudents.size(), errors.size()));
+            List<ImportRow> newRows = new ArrayList<>(rows.size() - existing.size());
+            List<ImportRow> changedRows = new ArrayList<>();
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Student.class);
 
-        } catch (IOException e) {
-            result.put("success", false);
-            result.put("message", "Error processing file: " + e.getMessage());
-        } catch (Exception e) {
-            result.put("success", false);
-            result.put("message", "Invalid file format or structure: " + e.getMessage());
+            for (ImportRow row : rows) {
+                Document stored = existing.get(row.student().getStudentAdmissionNumber());
+                if (stored == null) {
+                    newRows.add(row);
+                    continue;
+                }
+
+                Update update = changedFields(row.student(), stored);
+                if (update == null) {
+                    unchangedCount++;
+                    successfulCount++;
+                    continue;
+                }
+                bulkOps.updateOne(new Query(Criteria.where("_id").is(row.student().getStudentAdmissionNumber())), update);
+                changedRows.add(row);
+            }
+
+            if (!changedRows.isEmpty()) {
+                List<BulkWriteError> writeErrors = executeUnordered(bulkOps);
+                Set<String> updated = changedRows.stream()
+                        .map(row -> row.student().getStudentAdmissionNumber())
+                        .collect(Collectors.toCollection(HashSet::new));
+                for (BulkWriteError writeError : writeErrors) {
+                    ImportRow row = changedRows.get(writeError.getIndex());
+                    updated.remove(row.student().getStudentAdmissionNumber());
+                    Map<String, String> rowError = new HashMap<>();
+                    rowError.put("general", "Error updating student: " + writeError.getMessage());
+                    rowError.put("row", String.valueOf(row.rowNum()));
+                    addError(rowError);
+                }
+                // Blank cells kept their stored values, so index the merged documents as stored
+                searchIndexService.reindexStudents(updated);
+                updatedCount += changedRows.size() - writeErrors.size();
+                successfulCount += changedRows.size() - writeErrors.size();
+            }
+
+            return newRows;
         }
+    }
 
-        return result;
+    // $set of the fields whose converted value differs from the stored one, or null when nothing changed
+    Update changedFields(Student student, Document stored) {
+        Document incoming = new Document();
+        mongoTemplate.getConverter().write(student, incoming);
+
+        Update update = null;
+        for (Map.Entry<String, Object> field : incoming.entrySet()) {
+            if (UPSERT_IGNORED_FIELDS.contains(field.getKey()) || Objects.equals(field.getValue(), stored.get(field.getKey()))) {
+                continue;
+            }
+            if (update == null) {
+                update = new Update();
+            }
+            update.set(field.getKey(), field.getValue());
+        }
+        return update;
+    }
+
+    // Unordered so one bad document does not stop the rest; returns the per-document failures
+    private List<BulkWriteError> executeUnordered(BulkOperations bulkOps) {
+        try {
+            bulkOps.execute();
+            return Collections.emptyList();
+        } catch (BulkOperationException e) {
+            return e.getErrors();
+        } catch (RuntimeException e) {
+            // Depending on the error, the driver exception may arrive translated (e.g. DuplicateKeyException)
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof MongoBulkWriteException bulkWriteException) {
+                    return bulkWriteException.getWriteErrors();
+                }
+            }
+            throw e;
+        }
     }
 
-    private Map<String, String> processStudentRow(Row row, int rowNum) {
+    // Set default password - HASHED with BCrypt on the dedicated hashing pool
+    private CompletableFuture<Void> hashPasswords(List<ImportRow> rows) {
+        CompletableFuture<?>[] hashes = new CompletableFuture<?>[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            Student student = rows.get(i).student();
+            hashes[i] = bulkPasswordHasher.encode(DEFAULT_PASSWORD).thenAccept(student::setPassword);
+        }
+        return CompletableFuture.allOf(hashes);
+    }
+
+    private Map<String, String> processStudentRow(String[] values, int rowNum) {
         Map<String, String> errors = new HashMap<>();
 
         // Check mandatory fields
-        if (isCellEmpty(row.getCell(0))) {
+        if (values[0] == null) {
             errors.put("admissionNumber", "Admission number is required");
         }
-        if (isCellEmpty(row.getCell(1))) {
+        if (values[1] == null) {
             errors.put("firstName", "First name is required");
         }
-        if (isCellEmpty(row.getCell(2))) {
+        if (values[2] == null) {
             errors.put("lastName", "Last name is required");
         }
 
         // Validate gender if provided
-        if (!isCellEmpty(row.getCell(6))) {
-            String genderValue = getStringCellValue(row.getCell(6));
-            if (genderValue != null && !isValidGender(genderValue)) {
-                errors.put("gender", "Gender must be: Male, Female, or Others");
-            }
+        if (values[6] != null && !isValidGender(values[6])) {
+            errors.put("gender", "Gender must be: Male, Female, or Others");
         }
 
         if (!errors.isEmpty()) {
@@ -132,41 +516,38 @@ public class ExcelProcessingService {
         return errors;
     }
 
-    private Student createStudentFromRow(Row row) {
+    // Maps a row onto a Student; values that cannot be parsed are reported in rowErrors
+    Student createStudentFromRow(String[] values, Map<String, String> rowErrors) {
         Student student = new Student();
 
         // Mandatory fields
-        student.setStudentAdmissionNumber(getStringCellValue(row.getCell(0)));
-        student.setStudentFirstName(getStringCellValue(row.getCell(1)));
-        student.setStudentLastName(getStringCellValue(row.getCell(2)));
+        student.setStudentAdmissionNumber(values[0]);
+        student.setStudentFirstName(values[1]);
+        student.setStudentLastName(values[2]);
 
         // Optional fields
-        student.setFatherName(getStringCellValue(row.getCell(3)));
-        student.setMotherName(getStringCellValue(row.getCell(4)));
-        student.setDateOfBirth(getLocalDateCellValue(row.getCell(5)));
-        student.setGender(getGenderCellValue(row.getCell(6)));
-        student.setMobileNo(getStringCellValue(row.getCell(7)));
-        student.setEmailId(getStringCellValue(row.getCell(8)));
-        student.setCollegeEmailId(getStringCellValue(row.getCell(9)));
-        student.setDepartment(getStringCellValue(row.getCell(10)));
-        student.setBatch(getStringCellValue(row.getCell(11)));
-        student.setCgpa(getNumericCellValue(row.getCell(12)));
-        student.setTenthPercentage(getNumericCellValue(row.getCell(13)));
-        student.setTwelfthPercentage(getNumericCellValue(row.getCell(14)));
-
-        // Handle backlogs count - default to 0 if null
-        Integer backlogs = getIntegerCellValue(row.getCell(15));
-        student.setBackLogsCount(backlogs != null ? backlogs : 0);
-
-        student.setAddress(getStringCellValue(row.getCell(16)));
-        student.setResumeLink(getStringCellValue(row.getCell(17)));
-        student.setPhotographLink(getStringCellValue(row.getCell(18)));
-        student.setCourse(getStringCellValue(row.getCell(19)));
-        student.setStudentUniversityRollNo(getStringCellValue(row.getCell(20)));
-        student.setStudentEnrollmentNo(getStringCellValue(row.getCell(21)));
-
-        // Set default password - HASHED with BCrypt
-        student.setPassword(passwordEncoder.encode(DEFAULT_PASSWORD));
+        student.setFatherName(values[3]);
+        student.setMotherName(values[4]);
+        student.setDateOfBirth(parseDate(values[5], "dateOfBirth", rowErrors));
+        student.setGender(parseGender(values[6]));
+        student.setMobileNo(values[7]);
+        student.setEmailId(values[8]);
+        student.setCollegeEmailId(values[9]);
+        student.setDepartment(values[10]);
+        student.setBatch(values[11]);
+        student.setCgpa(parseDouble(values[12], "cgpa", rowErrors));
+        student.setTenthPercentage(parseDouble(values[13], "tenthPercentage", rowErrors));
+        student.setTwelfthPercentage(parseDouble(values[14], "twelfthPercentage", rowErrors));
+
+        // Left null when blank so an UPSERT keeps the stored count; inserts default it to 0
+        student.setBackLogsCount(parseInteger(values[15], "backLogsCount", rowErrors));
+
+        student.setAddress(values[16]);
+        student.setResumeLink(values[17]);
+        student.setPhotographLink(values[18]);
+        student.setCourse(values[19]);
+        student.setStudentUniversityRollNo(values[20]);
+        student.setStudentEnrollmentNo(values[21]);
 
         return student;
     }
@@ -236,29 +617,18 @@ public class ExcelProcessingService {
 
     // ===== HELPER METHODS =====
 
-    private LocalDate getLocalDateCellValue(Cell cell) {
-        if (cell == null) return null;
+    private LocalDate parseDate(String value, String field, Map<String, String> rowErrors) {
+        if (value == null) return null;
 
         try {
-            if (cell.getCellType() == CellType.NUMERIC && DateUtil.isCellDateFormatted(cell)) {
-                Date date = cell.getDateCellValue();
-                return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-            } else if (cell.getCellType() == CellType.STRING) {
-                String dateString = cell.getStringCellValue().trim();
-                if (!dateString.isEmpty()) {
-                    return LocalDate.parse(dateString);
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Error parsing date at cell: " + e.getMessage());
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            rowErrors.put(field, "Invalid date '" + value + "', expected yyyy-mm-dd");
         }
         return null;
     }
 
-    private Gender getGenderCellValue(Cell cell) {
-        if (cell == null) return null;
-
-        String genderValue = getStringCellValue(cell);
+    private Gender parseGender(String genderValue) {
         if (genderValue != null) {
             String normalized = genderValue.trim().toLowerCase();
             if (normalized.equals("male")) {
@@ -279,92 +649,34 @@ public class ExcelProcessingService {
                 normalized.equals("others") || normalized.equals("other");
     }
 
-    private boolean isRowEmpty(Row row) {
-        if (row == null) return true;
-
-        for (int i = 0; i < row.getLastCellNum(); i++) {
-            Cell cell = row.getCell(i);
-            if (cell != null && cell.getCellType() != CellType.BLANK) {
+    private boolean isRowEmpty(String[] values) {
+        for (String value : values) {
+            if (value != null) {
                 return false;
             }
         }
         return true;
     }
 
-    private boolean isCellEmpty(Cell cell) {
-        if (cell == null) return true;
-
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue().trim().isEmpty();
-            case NUMERIC:
-                return false;
-            case BOOLEAN:
-                return false;
-            case FORMULA:
-                return false;
-            default:
-                return true;
-        }
-    }
-
-    private String getStringCellValue(Cell cell) {
-        if (cell == null) return null;
-
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue().trim();
-            case NUMERIC:
-                if (DateUtil.isCellDateFormatted(cell)) {
-                    return cell.getDateCellValue().toString();
-                } else {
-                    double numericValue = cell.getNumericCellValue();
-                    if (numericValue == Math.floor(numericValue)) {
-                        return String.valueOf((long) numericValue);
-                    } else {
-                        return String.valueOf(numericValue);
-                    }
-                }
-            case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
-            default:
-                return null;
-        }
-    }
-
-    private Double getNumericCellValue(Cell cell) {
-        if (cell == null) return null;
+    private Double parseDouble(String value, String field, Map<String, String> rowErrors) {
+        if (value == null) return null;
 
         try {
-            if (cell.getCellType() == CellType.NUMERIC) {
-                return cell.getNumericCellValue();
-            } else if (cell.getCellType() == CellType.STRING) {
-                String stringValue = cell.getStringCellValue().trim();
-                if (!stringValue.isEmpty()) {
-                    return Double.parseDouble(stringValue);
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Error parsing numeric value: " + e.getMessage());
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            rowErrors.put(field, "Invalid number '" + value + "'");
         }
         return null;
     }
 
-    private Integer getIntegerCellValue(Cell cell) {
-        if (cell == null) return null;
+    private Integer parseInteger(String value, String field, Map<String, String> rowErrors) {
+        if (value == null) return null;
 
         try {
-            if (cell.getCellType() == CellType.NUMERIC) {
-                return (int) cell.getNumericCellValue();
-            } else if (cell.getCellType() == CellType.STRING) {
-                String stringValue = cell.getStringCellValue().trim();
-                if (!stringValue.isEmpty()) {
-                    return Integer.parseInt(stringValue);
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Error parsing integer value: " + e.getMessage());
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            rowErrors.put(field, "Invalid whole number '" + value + "'");
         }
         return null;
     }
-}
\ No newline at end of file
+}
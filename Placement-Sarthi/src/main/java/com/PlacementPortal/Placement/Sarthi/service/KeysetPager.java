@@ -0,0 +1,107 @@
+package com.PlacementPortal.Placement.Sarthi.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyset pagination over _id for the list endpoints. A page is read as {_id: {$gt: lastId}}
+ * sorted by _id with limit + 1, so every page is the same short walk of the _id index however
+ * deep the client has paged, unlike skip/offset. The continuation token is the collection name
+ * and the last _id of the page, base64url-encoded so clients treat it as opaque; a token from
+ * another collection or one that does not decode cleanly is rejected.
+ */
+@Component
+public class KeysetPager {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${pagination.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${pagination.max-page-size:200}")
+    private int maxPageSize;
+
+    /**
+     * One page of the collection as {content, limit, hasMore, nextCursor[, total]}.
+     * Throws IllegalArgumentException for a cursor that was not issued by this endpoint.
+     */
+    public <T> Map<String, Object> page(Class<T> type, String cursor, Integer limit, boolean includeTotal,
+                                        String... excludedFields) {
+        int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+
+        String collection = mongoTemplate.getCollectionName(type);
+        Query query = new Query();
+        if (cursor != null && !cursor.isBlank()) {
+            query.addCriteria(Criteria.where("_id").gt(decodeCursor(collection, cursor)));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(pageSize + 1);
+        exclude(query, excludedFields);
+
+        List<T> content = mongoTemplate.find(query, type);
+        boolean hasMore = content.size() > pageSize;
+        if (hasMore) {
+            content = content.subList(0, pageSize);
+        }
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("content", content);
+        page.put("limit", pageSize);
+        page.put("hasMore", hasMore);
+        page.put("nextCursor", hasMore ? encodeCursor(collection, idOf(type, content.get(content.size() - 1))) : null);
+        if (includeTotal) {
+            // Read from collection metadata instead of counting documents
+            page.put("total", mongoTemplate.estimatedCount(type));
+        }
+        return page;
+    }
+
+    private void exclude(Query query, String... fields) {
+        for (String field : fields) {
+            query.fields().exclude(field);
+        }
+    }
+
+    private Object idOf(Class<?> type, Object entity) {
+        return mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(type)
+                .getIdentifierAccessor(entity)
+                .getIdentifier();
+    }
+
+    String encodeCursor(String collection, Object id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((collection + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    String decodeCursor(String collection, String cursor) {
+        String decoded;
+        try {
+            // Strict UTF-8, so flipped bytes are an error rather than replacement characters
+            decoded = StandardCharsets.UTF_8.newDecoder()
+                    .decode(ByteBuffer.wrap(Base64.getUrlDecoder().decode(cursor)))
+                    .toString();
+        } catch (IllegalArgumentException | CharacterCodingException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+
+        String prefix = collection + ":";
+        if (!decoded.startsWith(prefix) || decoded.length() == prefix.length()) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        return decoded.substring(prefix.length());
+    }
+}
@@ -0,0 +1,100 @@
+package com.PlacementPortal.Placement.Sarthi.service;
+
+import com.PlacementPortal.Placement.Sarthi.entity.Admin;
+import com.PlacementPortal.Placement.Sarthi.entity.Principal;
+import com.PlacementPortal.Placement.Sarthi.entity.Student;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind buffer for lastLogin. Logins only record role:userId in memory; repeated logins of
+ * the same user coalesce, and a scheduled flush writes everything as one unordered bulk $set per
+ * collection. At most one flush interval of lastLogin values is lost if the process is killed.
+ */
+@Component
+public class LastLoginTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(LastLoginTracker.class);
+
+    // Companies have no lastLogin field
+    private static final Map<String, Class<?>> TRACKED_ROLES = Map.of(
+            PrincipalService.ROLE_STUDENT, Student.class,
+            PrincipalService.ROLE_ADMIN, Admin.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final ConcurrentHashMap<String, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    private final LongAdder recordedCount = new LongAdder();
+    private final LongAdder writtenCount = new LongAdder();
+
+    public void record(String role, String userId) {
+        if (TRACKED_ROLES.containsKey(role)) {
+            pending.put(Principal.key(role, userId), LocalDateTime.now());
+            recordedCount.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${login.last-login.flush-interval-ms:15000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // Take entries out one by one so logins recorded meanwhile stay for the next flush
+        Map<String, LocalDateTime> batch = new HashMap<>();
+        for (String key : pending.keySet()) {
+            LocalDateTime loginTime = pending.remove(key);
+            if (loginTime != null) {
+                batch.put(key, loginTime);
+            }
+        }
+
+        Map<String, BulkOperations> bulkByRole = new HashMap<>();
+        batch.forEach((key, loginTime) -> {
+            String[] parts = key.split(":", 2);
+            bulkByRole.computeIfAbsent(parts[0], role ->
+                            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TRACKED_ROLES.get(role)))
+                    .updateOne(new Query(Criteria.where("_id").is(parts[1])), new Update().set("lastLogin", loginTime));
+        });
+
+        try {
+            bulkByRole.values().forEach(BulkOperations::execute);
+            writtenCount.add(batch.size());
+        } catch (Exception e) {
+            // Put the batch back unless a newer login was recorded meanwhile
+            batch.forEach(pending::putIfAbsent);
+            logger.warn("Could not write {} lastLogin updates, retrying next flush: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", pending.size());
+        stats.put("recordedTotal", recordedCount.sum());
+        stats.put("writtenTotal", writtenCount.sum());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
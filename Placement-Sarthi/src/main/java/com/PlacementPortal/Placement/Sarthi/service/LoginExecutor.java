@@ -0,0 +1,106 @@
+package com.PlacementPortal.Placement.Sarthi.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs login authentication (principal lookup + BCrypt verification) on a small, core-sized pool
+ * instead of the Tomcat threads. The queue is bounded and overflow is rejected immediately, so a
+ * login storm gets fast 503s while static pages and session checks keep their servlet threads.
+ */
+@Component
+public class LoginExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginExecutor.class);
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    // 0 means one thread per available core
+    @Value("${login.verify-pool-size:0}")
+    private int poolSize;
+
+    @Value("${login.verify-queue-capacity:200}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    private final LongAdder verifiedCount = new LongAdder();
+    private final LongAdder verifyNanos = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "login-verify-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        logger.info("Login verification pool started with {} threads and a queue of {}", threads, queueCapacity);
+    }
+
+    /**
+     * @throws RejectedExecutionException right away when the queue is full
+     */
+    public CompletableFuture<Authentication> authenticate(String compositeUsername, String password) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                try {
+                    return authenticationManager.authenticate(
+                            new UsernamePasswordAuthenticationToken(compositeUsername, password));
+                } finally {
+                    verifyNanos.add(System.nanoTime() - start);
+                    verifiedCount.increment();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            throw e;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long count = verifiedCount.sum();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("poolSize", executor.getMaximumPoolSize());
+        stats.put("activeThreads", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("verifiedTotal", count);
+        stats.put("rejectedTotal", rejectedCount.sum());
+        stats.put("averageVerifyMillis", count > 0 ? verifyNanos.sum() / count / 1_000_000.0 : 0.0);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
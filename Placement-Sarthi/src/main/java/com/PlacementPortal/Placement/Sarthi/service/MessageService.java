@@ -3,9 +3,15 @@ package com.PlacementPortal.Placement.Sarthi.service;
 import com.PlacementPortal.Placement.Sarthi.entity.Message;
 import com.PlacementPortal.Placement.Sarthi.repository.MessageRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -14,6 +20,9 @@ public class MessageService {
     @Autowired
     private MessageRepository messageRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     public Message saveMessage(Message message) {
         message.onCreate();
         return messageRepository.save(message);
@@ -27,9 +36,31 @@ public class MessageService {
         return messageRepository.findByStatusOrderByCreatedAtDesc(status);
     }
 
-    public List<Message> searchMessages(String query) {
-        return messageRepository.findBySenderEmailContainingIgnoreCaseOrSubjectContainingIgnoreCaseOrMessageContainingIgnoreCase(
-                query, query, query);
+    /**
+     * Full-text search over sender, subject and body using the messages text index, best matches
+     * first. Fetches one extra hit to tell whether another page exists without counting.
+     */
+    public Map<String, Object> searchMessages(String query, int page, int size) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("page", page);
+        result.put("size", size);
+
+        if (query == null || query.isBlank()) {
+            result.put("messages", List.of());
+            result.put("hasMore", false);
+            return result;
+        }
+
+        Query textQuery = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(query))
+                .sortByScore()
+                .skip((long) page * size)
+                .limit(size + 1);
+        List<Message> messages = mongoTemplate.find(textQuery, Message.class);
+
+        boolean hasMore = messages.size() > size;
+        result.put("messages", hasMore ? messages.subList(0, size) : messages);
+        result.put("hasMore", hasMore);
+        return result;
     }
 
     public Optional<Message> getMessageById(String id) {
@@ -8,12 +8,21 @@ import com.PlacementPortal.Placement.Sarthi.repository.EventRepository;
 import com.PlacementPortal.Placement.Sarthi.repository.ParticipationRepository;
 import com.PlacementPortal.Placement.Sarthi.repository.StudentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ParticipationService {
@@ -27,6 +36,19 @@ public class ParticipationService {
     @Autowired
     private EventRepository eventRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // Registrations joined per round-trip when listing or exporting the students of an event
+    private static final int JOIN_BATCH_SIZE = 500;
+
+    // Student fields shown in the registration list and export
+    private static final String[] REGISTRANT_FIELDS = {
+            "studentFirstName", "studentLastName", "department", "batch", "course", "cgpa",
+            "tenthPercentage", "twelfthPercentage", "backLogsCount", "emailId", "mobileNo",
+            "studentUniversityRollNo", "studentEnrollmentNo"
+    };
+
     public Participation registerStudentForEvent(String studentAdmissionNumber, String eventId, String eventDescription) {
         Optional<Student> studentOpt = studentRepository.findByStudentAdmissionNumber(studentAdmissionNumber);
         if (studentOpt.isEmpty()) {
@@ -91,4 +113,49 @@ public class ParticipationService {
         participation.onUpdate();
         return participationRepository.save(participation);
     }
-}
\ No newline at end of file
+
+    /**
+     * Streams the registrations of an event together with their students. Participations are read
+     * from a cursor and the students of each batch are fetched with one projected $in query, so an
+     * event costs one round-trip per JOIN_BATCH_SIZE registrants instead of one per registrant.
+     * The student is null when the participation refers to a student that no longer exists.
+     */
+    public void forEachRegistration(String eventId, BiConsumer<Participation, Student> consumer) {
+        Query query = new Query(Criteria.where("eventId").is(eventId));
+        query.fields().include("studentAdmissionNumber", "status", "createdAt", "eventDescription");
+        query.cursorBatchSize(JOIN_BATCH_SIZE);
+
+        List<Participation> batch = new ArrayList<>(JOIN_BATCH_SIZE);
+        try (Stream<Participation> participations = mongoTemplate.stream(query, Participation.class)) {
+            Iterator<Participation> iterator = participations.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == JOIN_BATCH_SIZE) {
+                    joinStudents(batch, consumer);
+                    batch.clear();
+                }
+            }
+        }
+        joinStudents(batch, consumer);
+    }
+
+    private void joinStudents(List<Participation> batch, BiConsumer<Participation, Student> consumer) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<String> admissionNumbers = batch.stream()
+                .map(Participation::getStudentAdmissionNumber)
+                .distinct()
+                .collect(Collectors.toList());
+
+        Query query = new Query(Criteria.where("_id").in(admissionNumbers));
+        query.fields().include(REGISTRANT_FIELDS);
+        Map<String, Student> students = mongoTemplate.find(query, Student.class).stream()
+                .collect(Collectors.toMap(Student::getStudentAdmissionNumber, Function.identity()));
+
+        for (Participation participation : batch) {
+            consumer.accept(participation, students.get(participation.getStudentAdmissionNumber()));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.PlacementPortal.Placement.Sarthi.service;
+
+import com.PlacementPortal.Placement.Sarthi.entity.Principal;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * One-off move of the password hashes stored on student, admin and company documents into the
+ * principals collection. Each batch is copied first and only then removed from the profiles, so an
+ * interrupted run is simply resumed on the next start; once no profile has a password it is a no-op.
+ * It runs once all singletons exist but before the web server starts, so no login can reach
+ * the principals collection before it is filled; accounts a failed run left behind are still
+ * served from the profile by PrincipalService.findLegacy.
+ */
+@Component
+public class PrincipalMigration implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrincipalMigration.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PrincipalService principalService;
+
+    @Value("${principals.migrate-on-startup:true}")
+    private boolean migrateOnStartup;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!migrateOnStartup) {
+            return;
+        }
+        try {
+            migrate("students", PrincipalService.ROLE_STUDENT, null);
+            migrate("admins", PrincipalService.ROLE_ADMIN, "emailAddress");
+            migrate("companies", PrincipalService.ROLE_COMPANY, null);
+        } catch (Exception e) {
+            logger.error("Could not migrate credentials to principals: {}", e.getMessage());
+        }
+    }
+
+    private void migrate(String collection, String role, String emailField) {
+        Query query = new Query(Criteria.where("password").exists(true));
+        query.fields().include("password");
+        if (emailField != null) {
+            query.fields().include(emailField);
+        }
+
+        int migrated = 0;
+        try (Stream<Document> stream = mongoTemplate.stream(query, Document.class, collection)) {
+            Iterator<Document> iterator = stream.iterator();
+            List<Document> batch = new ArrayList<>(BATCH_SIZE);
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == BATCH_SIZE || !iterator.hasNext()) {
+                    migrateBatch(collection, role, emailField, batch);
+                    migrated += batch.size();
+                    batch.clear();
+                }
+            }
+        }
+
+        if (migrated > 0) {
+            logger.info("Moved {} {} credentials to principals", migrated, role);
+        }
+    }
+
+    private void migrateBatch(String collection, String role, String emailField, List<Document> batch) {
+        BulkOperations principals = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Principal.class);
+        List<Object> ids = new ArrayList<>(batch.size());
+
+        for (Document profile : batch) {
+            String userId = String.valueOf(profile.get("_id"));
+            // A principal written since (e.g. by a password change) is newer than the profile hash
+            Update update = principalService.accountUpdate(role, userId)
+                    .setOnInsert("passwordHash", profile.getString("password"));
+            if (emailField != null && profile.getString(emailField) != null) {
+                update.set("email", profile.getString(emailField));
+            }
+            principals.upsert(new Query(Criteria.where("_id").is(Principal.key(role, userId))), update);
+            ids.add(profile.get("_id"));
+        }
+        principals.execute();
+
+        mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(ids)), new Update().unset("password"), collection);
+    }
+}
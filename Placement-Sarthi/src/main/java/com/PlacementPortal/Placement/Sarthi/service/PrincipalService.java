@@ -0,0 +1,186 @@
+package com.PlacementPortal.Placement.Sarthi.service;
+
+import com.PlacementPortal.Placement.Sarthi.entity.Principal;
+import com.PlacementPortal.Placement.Sarthi.repository.PrincipalRepository;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Owns the principals collection. Profile services call it whenever an account is created,
+ * changes its password or login email, or is deleted; nothing else stores credentials.
+ */
+@Service
+public class PrincipalService {
+
+    public static final String ROLE_STUDENT = "student";
+    public static final String ROLE_ADMIN = "admin";
+    public static final String ROLE_COMPANY = "company";
+
+    private static final Logger logger = LoggerFactory.getLogger(PrincipalService.class);
+
+    // Profile collections that stored the password hash before principals existed
+    private static final Map<String, String> LEGACY_COLLECTIONS = Map.of(
+            ROLE_STUDENT, "students",
+            ROLE_ADMIN, "admins",
+            ROLE_COMPANY, "companies");
+
+    @Autowired
+    private PrincipalRepository principalRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    // Admins may sign in with their id or their email: one $or query over _id and the email index
+    public Optional<Principal> findForLogin(String role, String identifier) {
+        if (!ROLE_ADMIN.equals(role)) {
+            return principalRepository.findById(Principal.key(role, identifier));
+        }
+
+        Query query = new Query(new Criteria().orOperator(
+                Criteria.where("_id").is(Principal.key(role, identifier)),
+                Criteria.where("email").is(identifier)));
+        List<Principal> matches = mongoTemplate.find(query, Principal.class);
+
+        // Email wins, as it did when admins were looked up by email first
+        return matches.stream()
+                .filter(principal -> identifier.equals(principal.getEmail()))
+                .findFirst()
+                .or(() -> matches.stream().findFirst());
+    }
+
+    /**
+     * Builds an unsaved principal from a password still stored on the profile document, for accounts
+     * PrincipalMigration has not moved yet (e.g. because a run failed). Empty once migration is done.
+     */
+    public Optional<Principal> findLegacy(String role, String identifier) {
+        String collection = LEGACY_COLLECTIONS.get(role);
+        if (collection == null) {
+            return Optional.empty();
+        }
+
+        Criteria byId = Criteria.where("_id").is(identifier);
+        Query query = new Query(ROLE_ADMIN.equals(role)
+                ? new Criteria().orOperator(byId, Criteria.where("emailAddress").is(identifier))
+                : byId);
+        query.addCriteria(Criteria.where("password").exists(true));
+        query.fields().include("password");
+
+        Document profile = mongoTemplate.findOne(query, Document.class, collection);
+        if (profile == null) {
+            return Optional.empty();
+        }
+
+        String userId = String.valueOf(profile.get("_id"));
+        Principal principal = new Principal();
+        principal.setId(Principal.key(role, userId));
+        principal.setRole(role);
+        principal.setUserId(userId);
+        principal.setPasswordHash(profile.getString("password"));
+        principal.setAuthorities(List.of(authority(role)));
+        return Optional.of(principal);
+    }
+
+    public boolean matches(String role, String userId, String rawPassword) {
+        return principalRepository.findById(Principal.key(role, userId))
+                .or(() -> findLegacy(role, userId))
+                .map(principal -> passwordEncoder.matches(rawPassword, principal.getPasswordHash()))
+                .orElse(false);
+    }
+
+    // Creates the principal when missing
+    public void setPasswordHash(String role, String userId, String passwordHash) {
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(Principal.key(role, userId))),
+                accountUpdate(role, userId).set("passwordHash", passwordHash), Principal.class);
+    }
+
+    // Unordered bulk upsert; returns the user ids whose principal could not be written
+    public Set<String> setPasswordHashes(String role, Map<String, String> hashesByUserId) {
+        if (hashesByUserId.isEmpty()) {
+            return Set.of();
+        }
+        List<String> userIds = new ArrayList<>(hashesByUserId.keySet());
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Principal.class);
+        for (String userId : userIds) {
+            bulkOps.upsert(new Query(Criteria.where("_id").is(Principal.key(role, userId))),
+                    accountUpdate(role, userId).set("passwordHash", hashesByUserId.get(userId)));
+        }
+
+        try {
+            bulkOps.execute();
+            return Set.of();
+        } catch (BulkOperationException e) {
+            return failedUserIds(userIds, e.getErrors());
+        } catch (RuntimeException e) {
+            // Depending on the error, the driver exception may arrive translated (e.g. DuplicateKeyException)
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof MongoBulkWriteException bulkWriteException) {
+                    return failedUserIds(userIds, bulkWriteException.getWriteErrors());
+                }
+            }
+            logger.error("Could not write {} {} principals: {}", userIds.size(), role, e.getMessage());
+            return new HashSet<>(userIds);
+        }
+    }
+
+    private Set<String> failedUserIds(List<String> userIds, List<BulkWriteError> errors) {
+        Set<String> failed = new HashSet<>();
+        for (BulkWriteError error : errors) {
+            failed.add(userIds.get(error.getIndex()));
+        }
+        return failed;
+    }
+
+    public void setEmail(String role, String userId, String email) {
+        Update update = new Update().set("updatedAt", LocalDateTime.now());
+        if (email == null || email.isEmpty()) {
+            update.unset("email");
+        } else {
+            update.set("email", email);
+        }
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(Principal.key(role, userId))), update, Principal.class);
+    }
+
+    public void delete(String role, String userId) {
+        principalRepository.deleteById(Principal.key(role, userId));
+    }
+
+    private static String authority(String role) {
+        return "ROLE_" + role.toUpperCase(Locale.ROOT);
+    }
+
+    // Fields every principal of the role carries; the caller adds the credential itself
+    Update accountUpdate(String role, String userId) {
+        LocalDateTime now = LocalDateTime.now();
+        return new Update()
+                .set("role", role)
+                .set("userId", userId)
+                .set("authorities", List.of(authority(role)))
+                .set("updatedAt", now)
+                .setOnInsert("enabled", true)
+                .setOnInsert("createdAt", now);
+    }
+}
@@ -0,0 +1,155 @@
+package com.PlacementPortal.Placement.Sarthi.service;
+
+import com.PlacementPortal.Placement.Sarthi.entity.Event;
+import com.PlacementPortal.Placement.Sarthi.entity.Message;
+import com.PlacementPortal.Placement.Sarthi.entity.Participation;
+import com.PlacementPortal.Placement.Sarthi.entity.Principal;
+import com.PlacementPortal.Placement.Sarthi.entity.Student;
+import com.mongodb.ExplainVerbosity;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs explain() on every query shape the app issues against its hot collections and reports
+ * the winning plan, so a missing or unused index shows up as a COLLSCAN instead of as a slow
+ * dashboard. Available at GET /api/reports/query-plans and, with query-plan-check.on-startup=true,
+ * logged once the application is ready.
+ */
+@Component
+public class QueryPlanReport {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryPlanReport.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Value("${query-plan-check.on-startup:false}")
+    private boolean checkOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkOnStartup() {
+        if (!checkOnStartup) {
+            return;
+        }
+        try {
+            for (Map<String, Object> plan : explainAll()) {
+                if (Boolean.TRUE.equals(plan.get("collectionScan"))) {
+                    logger.warn("Query shape '{}' on {} uses a collection scan: {}",
+                            plan.get("shape"), plan.get("collection"), plan.get("filter"));
+                } else {
+                    logger.info("Query shape '{}' on {} uses {}", plan.get("shape"), plan.get("collection"), plan.get("stages"));
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Query plan check failed: {}", e.getMessage());
+        }
+    }
+
+    public List<Map<String, Object>> explainAll() {
+        List<Map<String, Object>> plans = new ArrayList<>();
+
+        // Student filters (admin event cards send department + minCgpa, the company dashboard any combination).
+        // A backlog-only filter matches most students, so a scan is the right plan for it and it is not listed.
+        String collection = mongoTemplate.getCollectionName(Student.class);
+        plans.add(explain(collection, "department", studentService.buildFilterQuery("CSE", null, null, null)));
+        plans.add(explain(collection, "department + minCgpa", studentService.buildFilterQuery("CSE", 7.0, null, null)));
+        plans.add(explain(collection, "department + minCgpa + maxBacklogs", studentService.buildFilterQuery("CSE", 7.0, 0, null)));
+        plans.add(explain(collection, "department + batch", studentService.buildFilterQuery("CSE", null, null, "2025")));
+        plans.add(explain(collection, "department + batch + minCgpa + maxBacklogs", studentService.buildFilterQuery("CSE", 7.0, 0, "2025")));
+        plans.add(explain(collection, "batch", studentService.buildFilterQuery(null, null, null, "2025")));
+        plans.add(explain(collection, "batch + minCgpa + maxBacklogs", studentService.buildFilterQuery(null, 7.0, 0, "2025")));
+        plans.add(explain(collection, "minCgpa", studentService.buildFilterQuery(null, 7.0, null, null)));
+        plans.add(explain(collection, "minCgpa + maxBacklogs", studentService.buildFilterQuery(null, 7.0, 0, null)));
+
+        // Company dashboard (exact company) and event search (company name prefix)
+        collection = mongoTemplate.getCollectionName(Event.class);
+        plans.add(explain(collection, "events by company", new Query(Criteria.where("organizingCompanyKey").is("acme"))));
+        plans.add(explain(collection, "events by company prefix", new Query(eventService.companyPrefixCriteria("ac"))));
+
+        // Registrations of one event (counts, exports, bulk status changes) and of one company
+        collection = mongoTemplate.getCollectionName(Participation.class);
+        plans.add(explain(collection, "participations by event", new Query(Criteria.where("eventId").is("EVENT-1"))));
+        plans.add(explain(collection, "participations by event + status", new Query(Criteria.where("eventId").is("EVENT-1")
+                .and("status").is(Participation.ParticipationStatus.REGISTERED.name()))));
+        plans.add(explain(collection, "participations by company", new Query(Criteria.where("organizingCompany").is("Acme"))));
+
+        // Admin inbox search
+        collection = mongoTemplate.getCollectionName(Message.class);
+        plans.add(explain(collection, "message text search",
+                TextQuery.queryText(TextCriteria.forDefaultLanguage().matching("interview")).sortByScore()));
+
+        // Admin login by id or email
+        collection = mongoTemplate.getCollectionName(Principal.class);
+        plans.add(explain(collection, "principal by admin id or email", new Query(new Criteria().orOperator(
+                Criteria.where("_id").is(Principal.key(PrincipalService.ROLE_ADMIN, "admin@example.com")),
+                Criteria.where("email").is("admin@example.com")))));
+
+        return plans;
+    }
+
+    Map<String, Object> explain(String collection, String shape, Query query) {
+        Document explain = mongoTemplate.getCollection(collection)
+                .find(query.getQueryObject())
+                .sort(query.getSortObject())
+                .explain(ExplainVerbosity.QUERY_PLANNER);
+
+        Document winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+        // Plans from the slot-based engine wrap the classic plan tree in "queryPlan"
+        if (winningPlan.containsKey("queryPlan")) {
+            winningPlan = winningPlan.get("queryPlan", Document.class);
+        }
+
+        List<String> stages = new ArrayList<>();
+        List<String> indexes = new ArrayList<>();
+        collectStages(winningPlan, stages, indexes);
+
+        Map<String, Object> plan = new LinkedHashMap<>();
+        plan.put("collection", collection);
+        plan.put("shape", shape);
+        plan.put("filter", query.getQueryObject().toJson());
+        plan.put("stages", String.join(" <- ", stages));
+        plan.put("indexes", indexes);
+        plan.put("collectionScan", stages.contains("COLLSCAN"));
+        return plan;
+    }
+
+    private void collectStages(Document stage, List<String> stages, List<String> indexes) {
+        stages.add(stage.getString("stage"));
+        if (stage.getString("indexName") != null) {
+            indexes.add(stage.getString("indexName"));
+        }
+
+        Document inputStage = stage.get("inputStage", Document.class);
+        if (inputStage != null) {
+            collectStages(inputStage, stages, indexes);
+        }
+        List<Document> inputStages = stage.getList("inputStages", Document.class);
+        if (inputStages != null) {
+            for (Document input : inputStages) {
+                collectStages(input, stages, indexes);
+            }
+        }
+    }
+}
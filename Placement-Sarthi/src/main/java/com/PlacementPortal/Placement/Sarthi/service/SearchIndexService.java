@@ -0,0 +1,436 @@
+package com.PlacementPortal.Placement.Sarthi.service;
+
+import com.PlacementPortal.Placement.Sarthi.entity.Company;
+import com.PlacementPortal.Placement.Sarthi.entity.Event;
+import com.PlacementPortal.Placement.Sarthi.entity.Student;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Embedded Lucene index over students, events and companies for the admin global search.
+ * The index lives in a local directory, is rebuilt from Mongo at startup and is kept current by
+ * the service-layer save and delete paths. Searches see changes without a commit through a
+ * near-real-time SearcherManager; pending changes are committed every
+ * search.index.commit-interval-ms, after rebuilds and on shutdown, and anything lost in a crash
+ * is restored by the next rebuild.
+ *
+ * Incremental writes share a read lock and a rebuild takes the write lock, so a save or delete
+ * waits for a running rebuild instead of being wiped by deleteAll() or undone by the stream.
+ * Searches keep seeing the previous index until the rebuild commits, and a rebuild that fails
+ * halfway is rolled back to it.
+ */
+@Service
+public class SearchIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexService.class);
+
+    public static final String TYPE_STUDENT = "student";
+    public static final String TYPE_EVENT = "event";
+    public static final String TYPE_COMPANY = "company";
+
+    // "type:id", unique per document, used to replace and delete entries
+    private static final String FIELD_KEY = "key";
+    private static final String FIELD_TYPE = "type";
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_TITLE = "title";
+    private static final String FIELD_SUBTITLE = "subtitle";
+    // Analysed names, departments, roles etc.
+    private static final String FIELD_TEXT = "text";
+    // Whole lower-cased identifiers (admission number, roll number, email) for prefix matches
+    private static final String FIELD_IDENTIFIER = "identifier";
+
+    private static final int MAX_RESULTS = 50;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${search.index.directory:./data/search-index}")
+    private String indexDirectory;
+
+    @Value("${search.index.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private FSDirectory directory;
+    // Replaced when a failed rebuild is rolled back
+    private volatile IndexWriter writer;
+    private volatile SearcherManager searcherManager;
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    public void init() throws IOException {
+        Path path = Paths.get(indexDirectory);
+        Files.createDirectories(path);
+
+        directory = FSDirectory.open(path);
+        openWriter();
+    }
+
+    private void openWriter() throws IOException {
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.commit();
+        writer.close();
+        directory.close();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            try {
+                rebuild();
+            } catch (IOException | RuntimeException e) {
+                // Already logged; searches keep using the index from the last run
+            }
+        }
+    }
+
+    // Writes pending save-path changes to disk so a crash loses at most one interval of them
+    @Scheduled(fixedDelayString = "${search.index.commit-interval-ms:60000}")
+    public void commitPending() {
+        indexLock.readLock().lock();
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException e) {
+            logger.error("Could not commit the search index: {}", e.getMessage());
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    // Replaces the whole index with the current contents of the three collections; on failure the previous index is kept
+    public Map<String, Object> rebuild() throws IOException {
+        long start = System.nanoTime();
+        Map<String, Object> counts = new LinkedHashMap<>();
+
+        indexLock.writeLock().lock();
+        try {
+            // Pending save-path changes must survive a rollback
+            writer.commit();
+            writer.deleteAll();
+            counts.put("students", addAll(Student.class, this::toDocument));
+            counts.put("events", addAll(Event.class, this::toDocument, "eventDescription"));
+            counts.put("companies", addAll(Company.class, this::toDocument));
+            writer.commit();
+            searcherManager.maybeRefresh();
+
+            logger.info("Search index rebuilt in {} ms: {}", (System.nanoTime() - start) / 1_000_000, counts);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Could not rebuild the search index, keeping the previous one: {}", e.getMessage());
+            rollback(e);
+            throw e;
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+        return counts;
+    }
+
+    // Drops everything since the last commit and reopens the writer, which rollback() closes
+    private void rollback(Exception failure) {
+        SearcherManager previous = searcherManager;
+        try {
+            writer.rollback();
+            openWriter();
+            previous.close();
+        } catch (IOException | RuntimeException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    public void indexStudent(Student student) {
+        incremental(() -> write(TYPE_STUDENT, student.getStudentAdmissionNumber(), toDocument(student)));
+    }
+
+    public void indexStudents(Collection<Student> students) {
+        incremental(() -> {
+            for (Student student : students) {
+                write(TYPE_STUDENT, student.getStudentAdmissionNumber(), toDocument(student));
+            }
+        });
+    }
+
+    // Re-reads the given students from Mongo, e.g. after a bulk import wrote them directly
+    public void reindexStudents(Collection<String> admissionNumbers) {
+        if (admissionNumbers.isEmpty()) {
+            return;
+        }
+        org.springframework.data.mongodb.core.query.Query query =
+                new org.springframework.data.mongodb.core.query.Query(Criteria.where("_id").in(admissionNumbers));
+        incremental(() -> {
+            for (Student student : mongoTemplate.find(query, Student.class)) {
+                write(TYPE_STUDENT, student.getStudentAdmissionNumber(), toDocument(student));
+            }
+        });
+    }
+
+    public void indexEvent(Event event) {
+        incremental(() -> write(TYPE_EVENT, event.getEventId(), toDocument(event)));
+    }
+
+    public void indexCompany(Company company) {
+        incremental(() -> write(TYPE_COMPANY, company.getCompanyId(), toDocument(company)));
+    }
+
+    public void remove(String type, String id) {
+        incremental(() -> {
+            try {
+                writer.deleteDocuments(new Term(FIELD_KEY, type + ":" + id));
+            } catch (IOException e) {
+                logger.error("Could not remove {} {} from the search index: {}", type, id, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Search-as-you-type: every word of the input must match a document word exactly, as a
+     * prefix or within a small edit distance (exact > prefix > fuzzy). The whole input is also
+     * tried as a prefix of an identifier such as an email or roll number. type may be null.
+     */
+    public List<Map<String, Object>> search(String input, String type, int limit) throws IOException {
+        List<Map<String, Object>> results = new ArrayList<>();
+        Query query = buildQuery(input, type);
+        if (query == null) {
+            return results;
+        }
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs topDocs = searcher.search(query, Math.max(1, Math.min(limit, MAX_RESULTS)));
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                Document document = searcher.storedFields().document(scoreDoc.doc);
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("type", document.get(FIELD_TYPE));
+                result.put("id", document.get(FIELD_ID));
+                result.put("title", document.get(FIELD_TITLE));
+                result.put("subtitle", document.get(FIELD_SUBTITLE));
+                result.put("score", scoreDoc.score);
+                results.add(result);
+            }
+        } finally {
+            searcherManager.release(searcher);
+        }
+        return results;
+    }
+
+    private Query buildQuery(String input, String type) throws IOException {
+        if (input == null || input.isBlank()) {
+            return null;
+        }
+
+        BooleanQuery.Builder words = new BooleanQuery.Builder();
+        List<String> terms = analyze(input);
+        for (String term : terms) {
+            BooleanQuery.Builder word = new BooleanQuery.Builder();
+            word.add(new BoostQuery(new TermQuery(new Term(FIELD_TEXT, term)), 3f), BooleanClause.Occur.SHOULD);
+            word.add(new BoostQuery(new PrefixQuery(new Term(FIELD_TEXT, term)), 2f), BooleanClause.Occur.SHOULD);
+            if (term.length() >= 3) {
+                // One typo for short words, two for longer ones; the first letter must match to keep it cheap
+                word.add(new FuzzyQuery(new Term(FIELD_TEXT, term), term.length() >= 6 ? 2 : 1, 1), BooleanClause.Occur.SHOULD);
+            }
+            words.add(word.build(), BooleanClause.Occur.MUST);
+        }
+
+        BooleanQuery.Builder any = new BooleanQuery.Builder();
+        if (!terms.isEmpty()) {
+            any.add(words.build(), BooleanClause.Occur.SHOULD);
+        }
+        any.add(new BoostQuery(new PrefixQuery(new Term(FIELD_IDENTIFIER, input.trim().toLowerCase(Locale.ROOT))), 4f),
+                BooleanClause.Occur.SHOULD);
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        query.add(any.build(), BooleanClause.Occur.MUST);
+        if (type != null && !type.isBlank()) {
+            query.add(new TermQuery(new Term(FIELD_TYPE, type.toLowerCase(Locale.ROOT))), BooleanClause.Occur.FILTER);
+        }
+        return query.build();
+    }
+
+    private List<String> analyze(String input) throws IOException {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream tokens = analyzer.tokenStream(FIELD_TEXT, new StringReader(input))) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                terms.add(term.toString());
+            }
+            tokens.end();
+        }
+        return terms;
+    }
+
+    private void write(String type, String id, Document document) {
+        if (id == null) {
+            return;
+        }
+        try {
+            writer.updateDocument(new Term(FIELD_KEY, type + ":" + id), document);
+        } catch (IOException e) {
+            // The Mongo write already happened; the next rebuild will pick the change up
+            logger.error("Could not index {} {}: {}", type, id, e.getMessage());
+        }
+    }
+
+    // Applies a save-path change and makes it visible to searches, never in the middle of a rebuild
+    private void incremental(Runnable change) {
+        indexLock.readLock().lock();
+        try {
+            change.run();
+            refresh();
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    // Makes pending changes visible to searches (near-real-time, no commit)
+    private void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            logger.error("Could not refresh the search index: {}", e.getMessage());
+        }
+    }
+
+    // Streams a whole collection into the index, without the fields that are never searched
+    private <T> int addAll(Class<T> type, Function<T, Document> mapper, String... excludedFields) {
+        org.springframework.data.mongodb.core.query.Query query = new org.springframework.data.mongodb.core.query.Query();
+        for (String field : excludedFields) {
+            query.fields().exclude(field);
+        }
+        query.cursorBatchSize(1000);
+
+        int[] count = {0};
+        try (Stream<T> documents = mongoTemplate.stream(query, type)) {
+            documents.forEach(entity -> {
+                try {
+                    Document document = mapper.apply(entity);
+                    writer.updateDocument(new Term(FIELD_KEY, document.get(FIELD_KEY)), document);
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        return count[0];
+    }
+
+    private Document toDocument(Student student) {
+        Document document = newDocument(TYPE_STUDENT, student.getStudentAdmissionNumber(),
+                join(student.getStudentFirstName(), student.getStudentLastName()),
+                join(student.getDepartment(), student.getBatch()));
+        addText(document, student.getStudentFirstName(), student.getStudentLastName(), student.getDepartment(),
+                student.getCourse(), student.getBatch(), student.getEmailId(), student.getCollegeEmailId());
+        addIdentifiers(document, student.getStudentAdmissionNumber(), student.getStudentUniversityRollNo(),
+                student.getStudentEnrollmentNo(), student.getEmailId(), student.getCollegeEmailId(), student.getMobileNo());
+        return document;
+    }
+
+    private Document toDocument(Event event) {
+        Document document = newDocument(TYPE_EVENT, event.getEventId(), event.getEventName(),
+                join(event.getOrganizingCompany(), event.getJobRole()));
+        addText(document, event.getEventName(), event.getOrganizingCompany(), event.getJobRole());
+        addIdentifiers(document, event.getEventId());
+        return document;
+    }
+
+    private Document toDocument(Company company) {
+        Document document = newDocument(TYPE_COMPANY, company.getCompanyId(), company.getCompanyName(), company.getHrName());
+        addText(document, company.getCompanyName(), company.getHrName(), company.getHrEmail());
+        addIdentifiers(document, company.getCompanyId(), company.getHrEmail());
+        return document;
+    }
+
+    private Document newDocument(String type, String id, String title, String subtitle) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_KEY, type + ":" + id, Field.Store.NO));
+        document.add(new StringField(FIELD_TYPE, type, Field.Store.YES));
+        document.add(new StoredField(FIELD_ID, id));
+        document.add(new StoredField(FIELD_TITLE, title != null ? title : ""));
+        document.add(new StoredField(FIELD_SUBTITLE, subtitle != null ? subtitle : ""));
+        return document;
+    }
+
+    private void addText(Document document, String... values) {
+        for (String value : values) {
+            if (value != null && !value.isBlank()) {
+                document.add(new TextField(FIELD_TEXT, value, Field.Store.NO));
+            }
+        }
+    }
+
+    private void addIdentifiers(Document document, String... values) {
+        for (String value : values) {
+            if (value != null && !value.isBlank()) {
+                document.add(new StringField(FIELD_IDENTIFIER, value.trim().toLowerCase(Locale.ROOT), Field.Store.NO));
+            }
+        }
+    }
+
+    private String join(String first, String second) {
+        if (first == null || first.isBlank()) {
+            return second != null ? second : "";
+        }
+        if (second == null || second.isBlank()) {
+            return first;
+        }
+        return first + " " + second;
+    }
+}
@@ -3,8 +3,10 @@ package com.PlacementPortal.Placement.Sarthi.service;
 import com.PlacementPortal.Placement.Sarthi.entity.Student;
 import com.PlacementPortal.Placement.Sarthi.repository.ParticipationRepository;
 import com.PlacementPortal.Placement.Sarthi.repository.StudentRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,9 +17,16 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.stream.Stream;
 
 @Service
 public class StudentService {
@@ -34,8 +43,42 @@ public class StudentService {
     @Autowired
     private ParticipationRepository participationRepository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private KeysetPager keysetPager;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private PrincipalService principalService;
+
     private static final String DEFAULT_PASSWORD = "gehu@123";
 
+    private static final String[] EXPORT_HEADERS = {
+            "Admission Number", "First Name", "Last Name",
+            "Department", "Batch", "CGPA", "Backlogs",
+            "Email", "Mobile", "Course", "University Roll No", "Resume Link"
+    };
+
+    // Fixed widths in characters; autoSizeColumn would have to measure every cell of the sheet
+    private static final int[] EXPORT_COLUMN_WIDTHS = {18, 16, 16, 24, 8, 8, 10, 32, 14, 20, 20, 48};
+
+    private static final String[] EXPORT_FIELDS = {
+            "studentFirstName", "studentLastName", "department", "batch", "cgpa", "backLogsCount",
+            "emailId", "mobileNo", "course", "studentUniversityRollNo", "resumeLink"
+    };
+
+    // Rows kept in memory by SXSSF before older ones are flushed to a temporary file
+    private static final int EXPORT_ROW_WINDOW = 100;
+
+    private static final int EXPORT_BATCH_SIZE = 1000;
+
     private static final Logger logger = LoggerFactory.getLogger(StudentService.class);
 
     public Student registerStudent(Student student) {
@@ -44,17 +87,18 @@ public class StudentService {
                     student.getStudentAdmissionNumber() + " already exists");
         }
 
-        if (student.getPassword() == null || student.getPassword().isEmpty()) {
-            student.setPassword(passwordEncoder.encode(DEFAULT_PASSWORD));
-        } else {
-            student.setPassword(passwordEncoder.encode(student.getPassword()));
-        }
+        String rawPassword = student.getPassword() == null || student.getPassword().isEmpty()
+                ? DEFAULT_PASSWORD : student.getPassword();
 
-        return studentRepository.save(student);
+        Student saved = studentRepository.save(student);
+        principalService.setPasswordHash(PrincipalService.ROLE_STUDENT, saved.getStudentAdmissionNumber(),
+                passwordEncoder.encode(rawPassword));
+        searchIndexService.indexStudent(saved);
+        return saved;
     }
 
-    public List<Student> getAllStudents() {
-        return studentRepository.findAll();
+    public Map<String, Object> getStudentsPage(String cursor, Integer limit, boolean includeTotal) {
+        return keysetPager.page(Student.class, cursor, limit, includeTotal);
     }
 
     public Student getStudentByAdmissionNumber(String admissionNumber) {
@@ -67,15 +111,15 @@ public class StudentService {
         }
         student.setStudentAdmissionNumber(admissionNumber);
 
-        // Don't overwrite password if not provided in update
-        if (student.getPassword() == null || student.getPassword().isEmpty()) {
-            Student existing = studentRepository.findById(admissionNumber).orElse(null);
-            if (existing != null) {
-                student.setPassword(existing.getPassword());
-            }
-        }
+        Student saved = studentRepository.save(student);
 
-        return studentRepository.save(student);
+        // Only update password if provided
+        if (student.getPassword() != null && !student.getPassword().isEmpty()) {
+            principalService.setPasswordHash(PrincipalService.ROLE_STUDENT, admissionNumber, passwordEncoder.encode(student.getPassword()));
+            userDetailsService.evict(PrincipalService.ROLE_STUDENT, admissionNumber);
+        }
+        searchIndexService.indexStudent(saved);
+        return saved;
     }
 
     @Transactional
@@ -93,6 +137,9 @@ public class StudentService {
         }
 
         studentRepository.deleteById(admissionNumber);
+        principalService.delete(PrincipalService.ROLE_STUDENT, admissionNumber);
+        userDetailsService.evict(PrincipalService.ROLE_STUDENT, admissionNumber);
+        searchIndexService.remove(SearchIndexService.TYPE_STUDENT, admissionNumber);
         logger.info("Deleted student: {}", admissionNumber);
     }
 
@@ -102,63 +149,86 @@ public class StudentService {
 
     /** Change student password. Verifies current password first. **/
     public boolean changePassword(String admissionNumber, String currentPassword, String newPassword) {
-        Optional<Student> studentOpt = studentRepository.findByStudentAdmissionNumber(admissionNumber);
-        if (studentOpt.isEmpty()) {
+        if (!studentRepository.existsByStudentAdmissionNumber(admissionNumber)) {
             throw new RuntimeException("Student not found");
         }
 
-        Student student = studentOpt.get();
-
-        if (!passwordEncoder.matches(currentPassword, student.getPassword())) {
+        if (!principalService.matches(PrincipalService.ROLE_STUDENT, admissionNumber, currentPassword)) {
             return false; // Current password is wrong
         }
 
-        student.setPassword(passwordEncoder.encode(newPassword));
-        studentRepository.save(student);
+        principalService.setPasswordHash(PrincipalService.ROLE_STUDENT, admissionNumber, passwordEncoder.encode(newPassword));
+        userDetailsService.evict(PrincipalService.ROLE_STUDENT, admissionNumber);
         return true;
     }
 
     /** MongoDB-based flexible filtering using MongoTemplate + Criteria. Replaces JpaSpecificationExecutor **/
     public List<Student> filterStudents(String department, Double minCgpa, Integer maxBacklogs, String batch) {
-        Query query = new Query();
+        return mongoTemplate.find(buildFilterQuery(department, minCgpa, maxBacklogs, batch), Student.class);
+    }
 
-        if (department != null && !department.isEmpty()) {
-            query.addCriteria(Criteria.where("department").is(department));
-        }
-        if (minCgpa != null) {
-            query.addCriteria(Criteria.where("cgpa").gte(minCgpa));
-        }
-        if (maxBacklogs != null) {
-            query.addCriteria(Criteria.where("backLogsCount").lte(maxBacklogs));
+    public enum ExportFormat {
+        XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+        CSV("text/csv; charset=UTF-8"),
+        NDJSON("application/x-ndjson");
+
+        private final String contentType;
+
+        ExportFormat(String contentType) {
+            this.contentType = contentType;
         }
-        if (batch != null && !batch.isEmpty()) {
-            query.addCriteria(Criteria.where("batch").is(batch));
+
+        public String getContentType() {
+            return contentType;
         }
 
-        return mongoTemplate.find(query, Student.class);
+        public String getFileExtension() {
+            return name().toLowerCase();
+        }
     }
 
-    public byte[] exportFilteredStudents(String department, Double minCgpa, Integer maxBacklogs, String batch) {
-        List<Student> students = filterStudents(department, minCgpa, maxBacklogs, batch);
+    /**
+     * Writes the filtered students straight to the output stream. Rows come from a Mongo cursor
+     * with only the exported fields, so the result set is never held in memory; XLSX rows go
+     * through a bounded SXSSF window, CSV and NDJSON are written as each document arrives.
+     */
+    public void exportFilteredStudents(String department, Double minCgpa, Integer maxBacklogs, String batch,
+                                       ExportFormat format, OutputStream outputStream) throws IOException {
+        Query query = buildFilterQuery(department, minCgpa, maxBacklogs, batch);
+        query.fields().include(EXPORT_FIELDS);
+        query.cursorBatchSize(EXPORT_BATCH_SIZE);
+
+        long count;
+        try (Stream<Student> students = mongoTemplate.stream(query, Student.class)) {
+            switch (format) {
+                case CSV:
+                    count = writeCsv(students, outputStream);
+                    break;
+                case NDJSON:
+                    count = writeNdjson(students, outputStream);
+                    break;
+                default:
+                    count = writeXlsx(students, outputStream);
+            }
+        }
+        logger.info("Exported {} filtered students as {}", count, format);
+    }
 
-        try (Workbook workbook = new XSSFWorkbook()) {
+    private long writeXlsx(Stream<Student> students, OutputStream outputStream) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(EXPORT_ROW_WINDOW);
+        try {
             Sheet sheet = workbook.createSheet("Filtered Students");
 
             Row headerRow = sheet.createRow(0);
-            String[] headers = {
-                    "Admission Number", "First Name", "Last Name",
-                    "Department", "Batch", "CGPA", "Backlogs",
-                    "Email", "Mobile", "Course", "University Roll No", "Resume Link"
-            };
-
-            for (int i = 0; i < headers.length; i++) {
+            for (int i = 0; i < EXPORT_HEADERS.length; i++) {
                 Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
+                cell.setCellValue(EXPORT_HEADERS[i]);
+                sheet.setColumnWidth(i, EXPORT_COLUMN_WIDTHS[i] * 256);
             }
 
-            int rowNum = 1;
-            for (Student student : students) {
-                Row row = sheet.createRow(rowNum++);
+            int[] rowNum = {1};
+            students.forEach(student -> {
+                Row row = sheet.createRow(rowNum[0]++);
                 row.createCell(0).setCellValue(student.getStudentAdmissionNumber() != null ? student.getStudentAdmissionNumber() : "");
                 row.createCell(1).setCellValue(student.getStudentFirstName() != null ? student.getStudentFirstName() : "");
                 row.createCell(2).setCellValue(student.getStudentLastName() != null ? student.getStudentLastName() : "");
@@ -171,18 +241,95 @@ public class StudentService {
                 row.createCell(9).setCellValue(student.getCourse() != null ? student.getCourse() : "");
                 row.createCell(10).setCellValue(student.getStudentUniversityRollNo() != null ? student.getStudentUniversityRollNo() : "");
                 row.createCell(11).setCellValue(student.getResumeLink() != null ? student.getResumeLink() : "");
-            }
+            });
 
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
+            workbook.write(outputStream);
+            return rowNum[0] - 1;
+        } finally {
+            // Removes the temporary files backing the flushed rows
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private long writeCsv(Stream<Student> students, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        CsvWriter csv = new CsvWriter(writer);
+        csv.writeRow(EXPORT_HEADERS);
+        // Send the header right away so the download starts before the first batch arrives
+        csv.flush();
+
+        long count = 0;
+        for (Iterator<Student> iterator = students.iterator(); iterator.hasNext(); count++) {
+            Student student = iterator.next();
+            csv.writeRow(
+                    student.getStudentAdmissionNumber(),
+                    student.getStudentFirstName(),
+                    student.getStudentLastName(),
+                    student.getDepartment(),
+                    student.getBatch(),
+                    student.getCgpa() != null ? student.getCgpa().toString() : null,
+                    student.getBackLogsCount() != null ? student.getBackLogsCount().toString() : null,
+                    student.getEmailId(),
+                    student.getMobileNo(),
+                    student.getCourse(),
+                    student.getStudentUniversityRollNo(),
+                    student.getResumeLink());
+        }
+        csv.flush();
+        return count;
+    }
+
+    // One JSON object per line, written field by field with a generator instead of serialising maps
+    private long writeNdjson(Stream<Student> students, OutputStream outputStream) throws IOException {
+        long count = 0;
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(outputStream)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Objects are separated by our own line breaks, not Jackson's default space
+            json.setRootValueSeparator(null);
+
+            for (Iterator<Student> iterator = students.iterator(); iterator.hasNext(); count++) {
+                Student student = iterator.next();
+                json.writeStartObject();
+                json.writeStringField("studentAdmissionNumber", student.getStudentAdmissionNumber());
+                json.writeStringField("studentFirstName", student.getStudentFirstName());
+                json.writeStringField("studentLastName", student.getStudentLastName());
+                json.writeStringField("department", student.getDepartment());
+                json.writeStringField("batch", student.getBatch());
+                json.writeObjectField("cgpa", student.getCgpa());
+                json.writeObjectField("backLogsCount", student.getBackLogsCount());
+                json.writeStringField("emailId", student.getEmailId());
+                json.writeStringField("mobileNo", student.getMobileNo());
+                json.writeStringField("course", student.getCourse());
+                json.writeStringField("studentUniversityRollNo", student.getStudentUniversityRollNo());
+                json.writeStringField("resumeLink", student.getResumeLink());
+                json.writeEndObject();
+                json.writeRaw('\n');
+                if (count == 0) {
+                    json.flush();
+                }
             }
+        }
+        return count;
+    }
 
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            return outputStream.toByteArray();
+    // Package-private so QueryPlanReport explains exactly the queries this service issues
+    Query buildFilterQuery(String department, Double minCgpa, Integer maxBacklogs, String batch) {
+        Query query = new Query();
 
-        } catch (Exception e) {
-            throw new RuntimeException("Error generating Excel file", e);
+        if (department != null && !department.isEmpty()) {
+            query.addCriteria(Criteria.where("department").is(department));
+        }
+        if (minCgpa != null) {
+            query.addCriteria(Criteria.where("cgpa").gte(minCgpa));
+        }
+        if (maxBacklogs != null) {
+            query.addCriteria(Criteria.where("backLogsCount").lte(maxBacklogs));
         }
+        if (batch != null && !batch.isEmpty()) {
+            query.addCriteria(Criteria.where("batch").is(batch));
+        }
+
+        return query;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,272 @@
+package com.PlacementPortal.Placement.Sarthi.service;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.stereotype.Component;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Streams the rows of an uploaded student sheet (.xlsx or .csv) without building a workbook in memory.
+ * Every row is handed to the callback as an array of trimmed cell values indexed by column
+ * (null for blank cells), so memory stays flat whatever the size of the sheet.
+ */
+@Component
+public class StudentSheetReader {
+
+    // Number of columns in the student upload template
+    public static final int COLUMN_COUNT = 22;
+
+    @FunctionalInterface
+    public interface RowCallback {
+        void onRow(int rowNum, String[] values);
+
+        // Called before the first row when the file declares its size (1-based number of the last row)
+        default void onSheetSize(int lastRowNum) {
+        }
+    }
+
+    public void read(InputStream inputStream, String fileName, RowCallback callback) throws IOException {
+        String name = fileName != null ? fileName.toLowerCase() : "";
+
+        if (name.endsWith(".xlsx")) {
+            readXlsx(inputStream, callback);
+        } else if (name.endsWith(".csv")) {
+            readCsv(inputStream, callback);
+        } else if (name.endsWith(".xls")) {
+            throw new IllegalArgumentException("Legacy .xls files are not supported. Please save the sheet as .xlsx or .csv");
+        } else {
+            throw new IllegalArgumentException("Unsupported file type: " + fileName + ". Please upload an .xlsx or .csv file");
+        }
+    }
+
+    /*
+     * Single-pass RFC 4180 parser over a fixed char buffer: quoted fields may contain commas,
+     * doubled quotes and line breaks; CRLF, LF and CR line endings and a UTF-8 BOM are accepted.
+     * Only one field and one row are held at a time.
+     */
+    private void readCsv(InputStream inputStream, RowCallback callback) throws IOException {
+        Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+        char[] buffer = new char[16 * 1024];
+        String[] values = new String[COLUMN_COUNT];
+        StringBuilder field = new StringBuilder(64);
+
+        int rowNum = 1;
+        int column = 0;
+        boolean firstChar = true;
+        boolean inQuotes = false;
+        boolean quotePending = false;
+        boolean skipLineFeed = false;
+        boolean rowStarted = false;
+
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                char c = buffer[i];
+
+                if (firstChar) {
+                    firstChar = false;
+                    if (c == '\uFEFF') {
+                        continue;
+                    }
+                }
+
+                if (inQuotes) {
+                    if (c == '"') {
+                        // "" inside quotes is a literal quote, a single one may close the field
+                        if (quotePending) {
+                            field.append('"');
+                        }
+                        quotePending = !quotePending;
+                        continue;
+                    }
+                    if (!quotePending) {
+                        field.append(c);
+                        continue;
+                    }
+                    inQuotes = false;
+                    quotePending = false;
+                }
+
+                if (skipLineFeed) {
+                    skipLineFeed = false;
+                    if (c == '\n') {
+                        continue;
+                    }
+                }
+
+                switch (c) {
+                    case '"':
+                        if (field.length() == 0) {
+                            inQuotes = true;
+                        } else {
+                            field.append(c);
+                        }
+                        rowStarted = true;
+                        break;
+                    case ',':
+                        column = endField(field, values, column);
+                        rowStarted = true;
+                        break;
+                    case '\r':
+                        skipLineFeed = true;
+                        // fall through
+                    case '\n':
+                        if (rowStarted || field.length() > 0) {
+                            endField(field, values, column);
+                            callback.onRow(rowNum, values.clone());
+                        }
+                        Arrays.fill(values, null);
+                        column = 0;
+                        rowStarted = false;
+                        rowNum++;
+                        break;
+                    default:
+                        field.append(c);
+                        rowStarted = true;
+                }
+            }
+        }
+
+        // Last row without a trailing line break
+        if (rowStarted || field.length() > 0) {
+            endField(field, values, column);
+            callback.onRow(rowNum, values.clone());
+        }
+    }
+
+    // Stores the trimmed field (null when blank) and returns the next column index
+    private int endField(StringBuilder field, String[] values, int column) {
+        if (column < COLUMN_COUNT) {
+            int start = 0;
+            int end = field.length();
+            while (start < end && Character.isWhitespace(field.charAt(start))) start++;
+            while (end > start && Character.isWhitespace(field.charAt(end - 1))) end--;
+            values[column] = start < end ? field.substring(start, end) : null;
+        }
+        field.setLength(0);
+        return column + 1;
+    }
+
+    // Reads only the first sheet through the XSSF event (SAX) model
+    private void readXlsx(InputStream inputStream, RowCallback callback) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(inputStream)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new DimensionAwareHandler(styles, strings, callback));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Unable to read Excel file: " + e.getMessage(), e);
+        }
+    }
+
+    // Reports the <dimension ref="A1:V5001"/> element, when present, so callers can estimate progress
+    private static final class DimensionAwareHandler extends XSSFSheetXMLHandler {
+
+        private final RowCallback callback;
+
+        private DimensionAwareHandler(StylesTable styles, ReadOnlySharedStringsTable strings, RowCallback callback) {
+            super(styles, strings, new RowCollector(callback), new RawValueFormatter(), false);
+            this.callback = callback;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+            if ("dimension".equals(localName)) {
+                String ref = attributes.getValue("ref");
+                if (ref != null && ref.indexOf(':') > 0) {
+                    callback.onSheetSize(new CellReference(ref.substring(ref.indexOf(':') + 1)).getRow() + 1);
+                }
+            }
+            super.startElement(uri, localName, qName, attributes);
+        }
+    }
+
+    // Collects the cells of one row at a time and hands the finished row to the callback
+    private static final class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final RowCallback callback;
+        private final String[] values = new String[COLUMN_COUNT];
+        private int lastColumn = -1;
+
+        private RowCollector(RowCallback callback) {
+            this.callback = callback;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            Arrays.fill(values, null);
+            lastColumn = -1;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            // Rows are 0-based in the sheet, 1-based for the user
+            callback.onRow(rowNum + 1, values.clone());
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : lastColumn + 1;
+            lastColumn = column;
+
+            if (column < 0 || column >= COLUMN_COUNT || formattedValue == null) {
+                return;
+            }
+
+            String value = formattedValue.trim();
+            values[column] = value.isEmpty() ? null : value;
+        }
+
+        @Override
+        public void headerFooter(String text, boolean isHeader, String tagName) {
+            // Not needed for data import
+        }
+    }
+
+    /**
+     * Emits plain numbers and ISO dates instead of display-formatted text, so
+     * "8.50" stays 8.5, "9,876,543,210" stays 9876543210 and any date format becomes yyyy-mm-dd.
+     */
+    private static final class RawValueFormatter extends DataFormatter {
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getLocalDateTime(value, use1904Windowing).toLocalDate().toString();
+            }
+            return NumberToTextConverter.toText(value);
+        }
+    }
+}
@@ -260,6 +260,25 @@ function apiFetch(url, options = {}) {
     });
 }
 
+// Reads every page of a keyset-paged list endpoint (/api/events, /api/companies) by following nextCursor
+async function fetchAllPages(url) {
+    const items = [];
+    let cursor = null;
+    do {
+        const params = new URLSearchParams({ limit: 200 });
+        if (cursor) params.set('cursor', cursor);
+
+        const response = await apiFetch(`${url}?${params}`);
+        if (!response.ok) {
+            throw new Error(`HTTP ${response.status}: ${response.statusText}`);
+        }
+        const page = await response.json();
+        items.push(...page.content);
+        cursor = page.nextCursor;
+    } while (cursor);
+    return items;
+}
+
 // =============================================
 // INITIALIZATION
 // =============================================
@@ -1299,11 +1318,11 @@ async function handleBulkUpload() {
     }
 
     const fileName = file.name.toLowerCase();
-    const validExtensions = ['.xlsx', '.xls', '.csv'];
+    const validExtensions = ['.xlsx', '.csv'];
     const isValidFile = validExtensions.some(ext => fileName.endsWith(ext));
 
     if (!isValidFile) {
-        showMessage('Please upload an Excel file (.xlsx, .xls) or CSV file', 'error');
+        showMessage('Please upload an Excel file (.xlsx) or CSV file', 'error');
         return;
     }
 
@@ -1442,7 +1461,12 @@ async function loadEventsByTab(tabType) {
             'past': '/api/events/past'
         };
 
-        const url = urlMap[tabType] || '/api/events';
+        const url = urlMap[tabType];
+        if (!url) {
+            await updateEventCards(await fetchAllPages('/api/events'));
+            return;
+        }
+
         const response = await apiFetch(url);
 
         if (response.ok) {
@@ -1459,14 +1483,9 @@ async function loadEventsByTab(tabType) {
 
 async function loadAllEventsAndFilter(tabType) {
     try {
-        const response = await apiFetch('/api/events');
-        if (response.ok) {
-            const allEvents = await response.json();
-            const filteredEvents = filterEventsByDate(allEvents, tabType);
-            await updateEventCards(filteredEvents);
-        } else {
-            throw new Error('Failed to load events');
-        }
+        const allEvents = await fetchAllPages('/api/events');
+        const filteredEvents = filterEventsByDate(allEvents, tabType);
+        await updateEventCards(filteredEvents);
     } catch (error) {
         console.error('Error in fallback loading:', error);
         showNoEventsMessage(tabType);
@@ -1823,38 +1842,9 @@ async function fetchDriveStats(eventId) {
         if (!response.ok) {
             return { registered: 0, oaSent: 0, interview: 0, selected: 0, rejected: 0, total: 0, participations: [] };
         }
+        // Each participation already carries the student's name and department
         const participations = await response.json();
 
-        // If student names are missing, fetch them individually
-        const needsStudentData = participations.some(p => {
-            const s = p.student || {};
-            return !s.studentFirstName && !p.studentFirstName && !p.firstName;
-        });
-
-        if (needsStudentData) {
-            // Batch fetch all students
-            try {
-                const studentsResponse = await apiFetch('/api/students');
-                if (studentsResponse.ok) {
-                    const allStudents = await studentsResponse.json();
-                    const studentMap = {};
-                    allStudents.forEach(s => {
-                        studentMap[s.studentAdmissionNumber] = s;
-                    });
-
-                    // Attach student data to participations
-                    participations.forEach(p => {
-                        const admNo = p.studentAdmissionNumber || (p.student && p.student.studentAdmissionNumber);
-                        if (admNo && studentMap[admNo]) {
-                            p.student = studentMap[admNo];
-                        }
-                    });
-                }
-            } catch (e) {
-                console.warn('Could not fetch student details:', e);
-            }
-        }
-
         const stats = {
             registered: 0, oaSent: 0, interview: 0, selected: 0, rejected: 0,
             total: participations.length, participations: participations
@@ -2182,11 +2172,8 @@ async function exportDriveStats(eventId) {
 
 async function loadCompanies() {
     try {
-        const response = await apiFetch('/api/companies');
-        if (response.ok) {
-            const companies = await response.json();
-            updateCompanyTable(companies);
-        }
+        const companies = await fetchAllPages('/api/companies');
+        updateCompanyTable(companies);
     } catch (error) {
         console.error('Error loading companies:', error);
     }
@@ -2356,15 +2343,10 @@ async function terminateCompany(companyId) {
 
 async function loadCompanyDrives() {
     try {
-        const eventsResponse = await apiFetch('/api/events');
-        const companiesResponse = await apiFetch('/api/companies');
-
-        if (!eventsResponse.ok || !companiesResponse.ok) {
-            throw new Error('Failed to load data');
-        }
-
-        const events = await eventsResponse.json();
-        const companies = await companiesResponse.json();
+        const [events, companies] = await Promise.all([
+            fetchAllPages('/api/events'),
+            fetchAllPages('/api/companies')
+        ]);
 
         const companyNames = new Set(companies.map(company => company.companyName));
         updateDrivesTable(events, companyNames);
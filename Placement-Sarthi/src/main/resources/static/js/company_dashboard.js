@@ -917,6 +917,8 @@ window.applyFilters = async function () {
         const response = await apiFetch(`/api/students/filter?${q}`);
         if (response.ok) {
             const students = await response.json();
+            nextStudentsCursor = null;
+            updateLoadMoreStudents();
             displayFilteredStudents(students);
             updateResultsSummary(students.length);
             showStudentFilterMessage(`Found ${students.length} students`, 'success');
@@ -1042,19 +1044,49 @@ window.updateResultsSummary = function (count) {
     }
 };
 
-window.loadAllStudents = async function () {
+// The unfiltered list is read one keyset page at a time; "Load more" follows nextCursor
+let loadedStudents = [];
+let nextStudentsCursor = null;
+
+window.loadAllStudents = async function (append = false) {
     try {
-        const response = await apiFetch('/api/students');
+        const params = new URLSearchParams({ limit: 50, includeTotal: true });
+        if (append && nextStudentsCursor) params.set('cursor', nextStudentsCursor);
+
+        const response = await apiFetch(`/api/students?${params}`);
         if (response.ok) {
-            const students = await response.json();
-            displayFilteredStudents(students);
-            updateResultsSummary(students.length);
+            const page = await response.json();
+            loadedStudents = append ? loadedStudents.concat(page.content) : page.content;
+            nextStudentsCursor = page.nextCursor;
+            displayFilteredStudents(loadedStudents);
+            updateResultsSummary(page.total ?? loadedStudents.length);
+            updateLoadMoreStudents();
         }
     } catch (error) {
         console.error('Error loading students:', error);
     }
 };
 
+window.updateLoadMoreStudents = function () {
+    const grid = document.getElementById('studentsGrid');
+    if (!grid) return;
+
+    let button = document.getElementById('loadMoreStudents');
+    if (!nextStudentsCursor) {
+        if (button) button.remove();
+        return;
+    }
+    if (!button) {
+        button = document.createElement('button');
+        button.id = 'loadMoreStudents';
+        button.className = 'btn btn-secondary';
+        button.textContent = 'Load more students';
+        button.style.cssText = 'display:block;margin:1.5rem auto;';
+        button.addEventListener('click', () => loadAllStudents(true));
+    }
+    grid.after(button);
+};
+
 window.showStudentFilterMessage = function (message, type) {
     let div = document.getElementById('studentFilterMessage');
     if (!div) {
@@ -262,6 +262,25 @@ function apiFetch(url, options = {}) {
     });
 }
 
+// Reads every page of a keyset-paged list endpoint (/api/events, /api/companies) by following nextCursor
+async function fetchAllPages(url) {
+    const items = [];
+    let cursor = null;
+    do {
+        const params = new URLSearchParams({ limit: 200 });
+        if (cursor) params.set('cursor', cursor);
+
+        const response = await apiFetch(`${url}?${params}`);
+        if (!response.ok) {
+            throw new Error(`HTTP ${response.status}: ${response.statusText}`);
+        }
+        const page = await response.json();
+        items.push(...page.content);
+        cursor = page.nextCursor;
+    } while (cursor);
+    return items;
+}
+
 // =============================================
 // GLOBAL VARIABLES
 // =============================================
@@ -368,13 +387,7 @@ async function initializeEventsSection() {
 
 async function loadEventsFromAPI() {
     try {
-        const response = await apiFetch('/api/events');
-
-        if (!response.ok) {
-            throw new Error(`HTTP ${response.status}: ${response.statusText}`);
-        }
-
-        allEvents = await response.json();
+        allEvents = await fetchAllPages('/api/events');
     } catch (error) {
         console.error('Failed to load events:', error);
         allEvents = [];
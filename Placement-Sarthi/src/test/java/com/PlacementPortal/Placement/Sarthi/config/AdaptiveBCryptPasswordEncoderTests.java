@@ -0,0 +1,61 @@
+package com.PlacementPortal.Placement.Sarthi.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveBCryptPasswordEncoderTests {
+
+	// Cost 4 is the BCrypt minimum and keeps these tests fast
+	private final AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(4);
+
+	@Test
+	void costIsParsedFromEveryBCryptVersion() {
+		assertThat(AdaptiveBCryptPasswordEncoder.costOf("$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy")).isEqualTo(10);
+		assertThat(AdaptiveBCryptPasswordEncoder.costOf("$2b$12$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy")).isEqualTo(12);
+		assertThat(AdaptiveBCryptPasswordEncoder.costOf("$2y$04$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy")).isEqualTo(4);
+	}
+
+	@Test
+	void anythingElseHasNoCost() {
+		assertThat(AdaptiveBCryptPasswordEncoder.costOf(null)).isNull();
+		assertThat(AdaptiveBCryptPasswordEncoder.costOf("")).isNull();
+		assertThat(AdaptiveBCryptPasswordEncoder.costOf("gehu@123")).isNull();
+		assertThat(AdaptiveBCryptPasswordEncoder.costOf("{noop}secret")).isNull();
+		assertThat(AdaptiveBCryptPasswordEncoder.costOf("$2a$10")).isNull();
+		assertThat(AdaptiveBCryptPasswordEncoder.costOf("$2a$1x$abc")).isNull();
+		assertThat(AdaptiveBCryptPasswordEncoder.costOf("$2a$+1$abc")).isNull();
+		assertThat(AdaptiveBCryptPasswordEncoder.costOf("$2a$-1$abc")).isNull();
+	}
+
+	@Test
+	void hashesAtTheCalibratedCostAreKept() {
+		String hash = encoder.encode("secret");
+
+		assertThat(AdaptiveBCryptPasswordEncoder.costOf(hash)).isEqualTo(4);
+		assertThat(encoder.matches("secret", hash)).isTrue();
+		assertThat(encoder.upgradeEncoding(hash)).isFalse();
+	}
+
+	@Test
+	void hashesAtAnyOtherCostAreRehashedUpOrDown() {
+		assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("secret"))).isTrue();
+
+		AdaptiveBCryptPasswordEncoder stronger = new AdaptiveBCryptPasswordEncoder(5);
+		assertThat(stronger.upgradeEncoding(encoder.encode("secret"))).isTrue();
+	}
+
+	@Test
+	void valuesThatAreNotBCryptHashesAreNotRehashed() {
+		assertThat(encoder.upgradeEncoding(null)).isFalse();
+		assertThat(encoder.upgradeEncoding("gehu@123")).isFalse();
+	}
+
+	@Test
+	void calibrationStaysWithinBounds() {
+		AdaptiveBCryptPasswordEncoder calibrated = AdaptiveBCryptPasswordEncoder.calibrated(4, 5, 1);
+
+		assertThat(calibrated.getStrength()).isBetween(4, 5);
+	}
+}
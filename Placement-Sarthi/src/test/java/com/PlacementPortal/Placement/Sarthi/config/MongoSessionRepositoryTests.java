@@ -0,0 +1,229 @@
+package com.PlacementPortal.Placement.Sarthi.config;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Session writes against a mocked MongoTemplate backed by an in-memory map of documents:
+ * new sessions are inserted, changed ones replaced without upsert, touches are throttled, and a
+ * session whose document disappeared is never written back.
+ */
+class MongoSessionRepositoryTests {
+
+	private static final Duration NEAR_CACHE_TTL = Duration.ofMillis(300);
+
+	private final Map<Object, Document> stored = new HashMap<>();
+
+	private MongoTemplate mongoTemplate;
+	private MongoCollection<Document> collection;
+	private MongoSessionRepository repository;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		mongoTemplate = mock(MongoTemplate.class);
+		collection = mock(MongoCollection.class);
+		when(mongoTemplate.getCollection(MongoSessionRepository.COLLECTION)).thenReturn(collection);
+
+		when(mongoTemplate.insert(any(Document.class), eq(MongoSessionRepository.COLLECTION))).thenAnswer(invocation -> {
+			Document document = invocation.getArgument(0);
+			stored.put(document.get("_id"), document);
+			return document;
+		});
+		when(mongoTemplate.findById(anyString(), eq(Document.class), eq(MongoSessionRepository.COLLECTION)))
+				.thenAnswer(invocation -> stored.get(invocation.getArgument(0)));
+		when(collection.replaceOne(any(Bson.class), any(Document.class))).thenAnswer(invocation -> {
+			Document document = invocation.getArgument(1);
+			boolean matched = stored.containsKey(document.get("_id"));
+			if (matched) {
+				stored.put(document.get("_id"), document);
+			}
+			return UpdateResult.acknowledged(matched ? 1 : 0, matched ? 1L : 0L, null);
+		});
+		when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(MongoSessionRepository.COLLECTION))).thenAnswer(invocation -> {
+			Object id = ((Query) invocation.getArgument(0)).getQueryObject().get("_id");
+			Document document = stored.get(id);
+			if (document != null) {
+				Document set = (Document) ((Update) invocation.getArgument(1)).getUpdateObject().get("$set");
+				document.putAll(set);
+			}
+			return UpdateResult.acknowledged(document != null ? 1 : 0, document != null ? 1L : 0L, null);
+		});
+		when(mongoTemplate.remove(any(Query.class), eq(MongoSessionRepository.COLLECTION))).thenAnswer(invocation -> {
+			Object id = ((Query) invocation.getArgument(0)).getQueryObject().get("_id");
+			return DeleteResult.acknowledged(stored.remove(id) != null ? 1 : 0);
+		});
+
+		repository = new MongoSessionRepository(mongoTemplate, Duration.ofMinutes(30), Duration.ofSeconds(60),
+				NEAR_CACHE_TTL, 100);
+	}
+
+	@Test
+	void newSessionIsInsertedAndReadBack() {
+		MongoSessionRepository.MongoSession session = repository.createSession();
+		session.setAttribute("role", "admin");
+		repository.save(session);
+
+		verify(mongoTemplate).insert(any(Document.class), eq(MongoSessionRepository.COLLECTION));
+		verify(collection, never()).replaceOne(any(Bson.class), any(Document.class));
+		assertThat(stored).containsKey(session.getId());
+		assertThat(repository.findById(session.getId()).<String>getAttribute("role")).isEqualTo("admin");
+	}
+
+	@Test
+	void changedSessionIsReplacedWithoutUpsert() {
+		String id = savedSession();
+
+		MongoSessionRepository.MongoSession session = repository.findById(id);
+		session.setAttribute("role", "student");
+		repository.save(session);
+
+		// The two-argument replaceOne never upserts
+		verify(collection).replaceOne(any(Bson.class), any(Document.class));
+		verify(mongoTemplate, times(1)).insert(any(Document.class), eq(MongoSessionRepository.COLLECTION));
+	}
+
+	@Test
+	void changedSessionDeletedElsewhereIsNotRecreated() {
+		String id = savedSession();
+		MongoSessionRepository.MongoSession session = repository.findById(id);
+
+		// Logged out on another node
+		stored.remove(id);
+		session.setAttribute("role", "student");
+		repository.save(session);
+
+		assertThat(stored).doesNotContainKey(id);
+		assertThat(repository.findById(id)).isNull();
+	}
+
+	@Test
+	void unchangedSessionIsNotWrittenWithinTheTouchInterval() {
+		String id = savedSession();
+
+		MongoSessionRepository.MongoSession session = repository.findById(id);
+		session.setLastAccessedTime(session.getLastAccessedTime().plusSeconds(10));
+		repository.save(session);
+
+		verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(MongoSessionRepository.COLLECTION));
+		verify(collection, never()).replaceOne(any(Bson.class), any(Document.class));
+	}
+
+	@Test
+	void unchangedSessionIsTouchedOnceTheIntervalElapsed() {
+		String id = savedSession();
+
+		MongoSessionRepository.MongoSession session = repository.findById(id);
+		Instant touched = session.getLastAccessedTime().plusSeconds(61);
+		session.setLastAccessedTime(touched);
+		repository.save(session);
+
+		verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(MongoSessionRepository.COLLECTION));
+		verify(collection, never()).replaceOne(any(Bson.class), any(Document.class));
+		assertThat(stored.get(id).getDate("lastAccessedAt").toInstant()).isEqualTo(touched.truncatedTo(java.time.temporal.ChronoUnit.MILLIS));
+	}
+
+	@Test
+	void touchOfADeletedSessionDropsTheCachedCopy() {
+		String id = savedSession();
+		MongoSessionRepository.MongoSession session = repository.findById(id);
+
+		stored.remove(id);
+		session.setLastAccessedTime(session.getLastAccessedTime().plusSeconds(61));
+		repository.save(session);
+
+		assertThat(stored).doesNotContainKey(id);
+		assertThat(repository.findById(id)).isNull();
+	}
+
+	@Test
+	void changedIdMovesTheDocument() {
+		String oldId = savedSession();
+
+		MongoSessionRepository.MongoSession session = repository.findById(oldId);
+		String newId = session.changeSessionId();
+		repository.save(session);
+
+		assertThat(stored).doesNotContainKey(oldId).containsKey(newId);
+		assertThat(repository.findById(oldId)).isNull();
+		assertThat(repository.findById(newId)).isNotNull();
+	}
+
+	@Test
+	void changedIdOfADeletedSessionIsNotRecreated() {
+		String oldId = savedSession();
+		MongoSessionRepository.MongoSession session = repository.findById(oldId);
+
+		stored.remove(oldId);
+		String newId = session.changeSessionId();
+		repository.save(session);
+
+		assertThat(stored).isEmpty();
+		assertThat(repository.findById(newId)).isNull();
+	}
+
+	@Test
+	void readsWithinTheNearCacheTtlAreServedFromMemory() {
+		String id = savedSession();
+
+		repository.findById(id);
+		repository.findById(id);
+
+		verify(mongoTemplate, never()).findById(anyString(), eq(Document.class), eq(MongoSessionRepository.COLLECTION));
+	}
+
+	@Test
+	void touchOnlySavesDoNotExtendTheNearCacheTtl() throws InterruptedException {
+		String id = savedSession();
+
+		Thread.sleep(NEAR_CACHE_TTL.toMillis() * 2 / 3);
+		// Re-puts the cached copy without writing to MongoDB
+		repository.save(repository.findById(id));
+		Thread.sleep(NEAR_CACHE_TTL.toMillis() * 2 / 3);
+
+		// Another node logged the session out; the stale copy must not outlive the TTL
+		stored.remove(id);
+		assertThat(repository.findById(id)).isNull();
+	}
+
+	@Test
+	void deleteRemovesTheDocumentAndTheCachedCopy() {
+		String id = savedSession();
+		repository.findById(id);
+
+		repository.deleteById(id);
+
+		assertThat(stored).doesNotContainKey(id);
+		assertThat(repository.findById(id)).isNull();
+	}
+
+	private String savedSession() {
+		MongoSessionRepository.MongoSession session = repository.createSession();
+		session.setAttribute("role", "admin");
+		repository.save(session);
+		return session.getId();
+	}
+}
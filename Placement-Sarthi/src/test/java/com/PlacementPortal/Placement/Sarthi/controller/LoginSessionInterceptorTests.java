@@ -0,0 +1,66 @@
+package com.PlacementPortal.Placement.Sarthi.controller;
+
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginSessionInterceptorTests {
+
+	private final LoginSessionInterceptor interceptor = new LoginSessionInterceptor();
+
+	private final Authentication authentication = new UsernamePasswordAuthenticationToken(
+			"student:1001", null, AuthorityUtils.createAuthorityList("ROLE_STUDENT"));
+
+	@Test
+	void asyncDispatchOfASuccessfulLoginStoresTheContext() {
+		MockHttpServletRequest request = dispatch(DispatcherType.ASYNC,
+				new LoginController.AuthenticatedResponse(authentication, Map.of("success", true)));
+
+		assertThat(interceptor.preHandle(request, new MockHttpServletResponse(), null)).isTrue();
+
+		SecurityContext context = (SecurityContext) request.getSession(false)
+				.getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY);
+		assertThat(context.getAuthentication()).isSameAs(authentication);
+	}
+
+	@Test
+	void failedLoginCreatesNoSession() {
+		MockHttpServletRequest request = dispatch(DispatcherType.ASYNC,
+				ResponseEntity.status(401).body(Map.of("success", false)));
+
+		interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+		assertThat(request.getSession(false)).isNull();
+	}
+
+	@Test
+	void initialDispatchCreatesNoSession() {
+		MockHttpServletRequest request = dispatch(DispatcherType.REQUEST,
+				new LoginController.AuthenticatedResponse(authentication, Map.of("success", true)));
+
+		interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+		assertThat(request.getSession(false)).isNull();
+	}
+
+	// A request as the dispatcher sees it once the login future completed with result
+	private MockHttpServletRequest dispatch(DispatcherType dispatcherType, Object result) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/login");
+		request.setDispatcherType(dispatcherType);
+		ReflectionTestUtils.setField(WebAsyncUtils.getAsyncManager(request), "concurrentResult", result);
+		return request;
+	}
+}
@@ -0,0 +1,62 @@
+package com.PlacementPortal.Placement.Sarthi.entity;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query-shape regression test: every filter the app runs against participations must be
+ * served by the leading keys of a declared index, so none of them falls back to a collection scan.
+ */
+class ParticipationIndexTests {
+
+	private final List<Document> indexKeys = new ArrayList<>();
+
+	@BeforeEach
+	void resolveIndexes() {
+		MongoMappingContext mappingContext = new MongoMappingContext();
+		// Without the Mongo simple types the resolver would introspect LocalDateTime, which JDK 17 refuses
+		mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+		MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+		for (IndexDefinition index : resolver.resolveIndexFor(Participation.class)) {
+			indexKeys.add(index.getIndexKeys());
+		}
+	}
+
+	@Test
+	void studentRegistrationLookupIsIndexed() {
+		// existsByStudentAdmissionNumberAndEventId, findByStudentAdmissionNumber, deleteByStudentAdmissionNumber
+		assertThat(hasIndexWithPrefix("studentAdmissionNumber", "eventId")).isTrue();
+	}
+
+	@Test
+	void perEventQueriesAreIndexed() {
+		// findByEventId, countByEventId, deleteByEventId, registration export
+		assertThat(hasIndexWithPrefix("eventId")).isTrue();
+		// bulk OA / interview / final-selection status changes
+		assertThat(hasIndexWithPrefix("eventId", "status")).isTrue();
+	}
+
+	@Test
+	void perCompanyQueriesAreIndexed() {
+		// findByOrganizingCompany
+		assertThat(hasIndexWithPrefix("organizingCompany")).isTrue();
+		assertThat(hasIndexWithPrefix("organizingCompany", "status")).isTrue();
+	}
+
+	private boolean hasIndexWithPrefix(String... fields) {
+		return indexKeys.stream().anyMatch(keys -> {
+			List<String> keyNames = new ArrayList<>(keys.keySet());
+			return keyNames.size() >= fields.length && keyNames.subList(0, fields.length).equals(List.of(fields));
+		});
+	}
+}
@@ -0,0 +1,216 @@
+package com.PlacementPortal.Placement.Sarthi.service;
+
+import com.PlacementPortal.Placement.Sarthi.entity.Participation;
+import com.PlacementPortal.Placement.Sarthi.entity.Participation.ParticipationStatus;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * applyRound must keep the semantics of the old per-participation loop: forward students are moved
+ * whatever their status, only rejectable statuses are rejected, missing forward students are
+ * registered unless it is the final selection, and concurrent registrations are skipped.
+ */
+class BulkOperationsServiceTests {
+
+	private final BulkOperationsService service = new BulkOperationsService();
+
+	private MongoTemplate mongoTemplate;
+	private BulkOperations bulkOps;
+	private final ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+
+	@BeforeEach
+	void setUp() {
+		mongoTemplate = mock(MongoTemplate.class);
+		bulkOps = mock(BulkOperations.class);
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Participation.class)).thenReturn(bulkOps);
+		ReflectionTestUtils.setField(service, "mongoTemplate", mongoTemplate);
+	}
+
+	@Test
+	void forwardListMovesEveryMatchAndRejectsOnlyRejectableStatuses() {
+		// Two of the three forward students are registered; two others are still only REGISTERED
+		existingParticipations("S1", "S2");
+		updates(2, 2, 2, 2);
+
+		BulkOperationsService.RoundResult result = service.applyRound("EV1", List.of("S1", "S2", "S3", "S1"),
+				ParticipationStatus.ATTEMPTED, "OA Link sent", EnumSet.of(ParticipationStatus.REGISTERED),
+				"Not shortlisted for OA round", true);
+
+		assertThat(result.updatedCount()).isEqualTo(2);
+		assertThat(result.rejectedCount()).isEqualTo(2);
+		assertThat(result.newRegistrations()).isEqualTo(1);
+
+		List<Query> queries = updateQueries(2);
+		List<Update> updates = updateUpdates();
+
+		Document forward = queries.get(0).getQueryObject();
+		assertThat(forward.get("eventId")).isEqualTo("EV1");
+		assertThat(inValues(forward.get("studentAdmissionNumber"), "$in")).containsExactly("S1", "S2", "S3");
+		assertThat(set(updates.get(0))).containsEntry("status", "ATTEMPTED").containsEntry("eventDescription", "OA Link sent");
+
+		Document reject = queries.get(1).getQueryObject();
+		assertThat(inValues(reject.get("studentAdmissionNumber"), "$nin")).containsExactly("S1", "S2", "S3");
+		assertThat(inValues(reject.get("status"), "$in")).containsExactly("REGISTERED");
+		assertThat(set(updates.get(1))).containsEntry("status", "REJECTED").containsEntry("eventDescription", "Not shortlisted for OA round");
+	}
+
+	@Test
+	void missingForwardStudentsAreRegisteredWithTheForwardStatus() {
+		existingParticipations("S1");
+		updates(1, 1, 0, 0);
+
+		service.applyRound("EV1", List.of("S1", "S2", "S3"), ParticipationStatus.ATTEMPTED, "Interview scheduled",
+				EnumSet.of(ParticipationStatus.ATTEMPTED, ParticipationStatus.REGISTERED), "Not shortlisted", true);
+
+		List<Participation> inserted = insertedParticipations();
+		assertThat(inserted).extracting(Participation::getStudentAdmissionNumber).containsExactly("S2", "S3");
+		assertThat(inserted).allSatisfy(participation -> {
+			assertThat(participation.getEventId()).isEqualTo("EV1");
+			assertThat(participation.getParticipationStatus()).isEqualTo(ParticipationStatus.ATTEMPTED);
+			assertThat(participation.getEventDescription()).isEqualTo("Interview scheduled");
+		});
+	}
+
+	@Test
+	void finalSelectionNeverRegistersNewStudents() {
+		updates(1, 1, 3, 3);
+
+		BulkOperationsService.RoundResult result = service.applyRound("EV1", List.of("S1", "S9"),
+				ParticipationStatus.SELECTED, "Congratulations!",
+				EnumSet.complementOf(EnumSet.of(ParticipationStatus.REJECTED, ParticipationStatus.SELECTED)),
+				"Not selected in final round", false);
+
+		assertThat(result.updatedCount()).isEqualTo(1);
+		assertThat(result.rejectedCount()).isEqualTo(3);
+		assertThat(result.newRegistrations()).isZero();
+		verify(mongoTemplate, never()).find(any(Query.class), eq(Participation.class));
+		verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(Participation.class));
+
+		Document reject = updateQueries(2).get(1).getQueryObject();
+		assertThat(inValues(reject.get("status"), "$in")).containsExactlyInAnyOrder("REGISTERED", "ATTEMPTED", "COMPLETED", "ABSENT");
+	}
+
+	@Test
+	void rejectedCountOnlyCountsDocumentsThatChanged() {
+		// Matched twice, but one was already rejected with the same description
+		updates(0, 0, 2, 1);
+
+		BulkOperationsService.RoundResult result = service.applyRound("EV1", List.of(), ParticipationStatus.ATTEMPTED,
+				"OA", EnumSet.of(ParticipationStatus.REGISTERED), "Not shortlisted", false);
+
+		assertThat(result.rejectedCount()).isEqualTo(1);
+	}
+
+	@Test
+	void concurrentRegistrationsAreSkipped() {
+		updates(0, 0, 0, 0);
+		when(bulkOps.execute()).thenThrow(new BulkOperationException("E11000", bulkWriteException(11000, 1)));
+
+		BulkOperationsService.RoundResult result = service.applyRound("EV1", List.of("S1", "S2", "S3"),
+				ParticipationStatus.ATTEMPTED, "OA", EnumSet.of(ParticipationStatus.REGISTERED), "Not shortlisted", true);
+
+		assertThat(result.newRegistrations()).isEqualTo(2);
+	}
+
+	@Test
+	void translatedDuplicateKeyErrorsAreSkippedToo() {
+		updates(0, 0, 0, 0);
+		when(bulkOps.execute()).thenThrow(new DuplicateKeyException("E11000", bulkWriteException(11000, 0)));
+
+		BulkOperationsService.RoundResult result = service.applyRound("EV1", List.of("S1", "S2"),
+				ParticipationStatus.ATTEMPTED, "OA", EnumSet.of(ParticipationStatus.REGISTERED), "Not shortlisted", true);
+
+		assertThat(result.newRegistrations()).isEqualTo(1);
+	}
+
+	@Test
+	void otherWriteErrorsFailTheRound() {
+		updates(0, 0, 0, 0);
+		when(bulkOps.execute()).thenThrow(new BulkOperationException("failed", bulkWriteException(121, 0)));
+
+		assertThatThrownBy(() -> service.applyRound("EV1", List.of("S1"), ParticipationStatus.ATTEMPTED, "OA",
+				EnumSet.of(ParticipationStatus.REGISTERED), "Not shortlisted", true))
+				.isInstanceOf(RuntimeException.class)
+				.hasMessageContaining("S1");
+	}
+
+	private void existingParticipations(String... admissionNumbers) {
+		List<Participation> existing = new ArrayList<>();
+		for (String admissionNumber : admissionNumbers) {
+			Participation participation = new Participation();
+			participation.setStudentAdmissionNumber(admissionNumber);
+			existing.add(participation);
+		}
+		when(mongoTemplate.find(any(Query.class), eq(Participation.class))).thenReturn(existing);
+	}
+
+	// Matched/modified counts of the forward update, then of the rejection update
+	private void updates(long forwardMatched, long forwardModified, long rejectMatched, long rejectModified) {
+		when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(Participation.class)))
+				.thenReturn(UpdateResult.acknowledged(forwardMatched, forwardModified, null))
+				.thenReturn(UpdateResult.acknowledged(rejectMatched, rejectModified, null));
+	}
+
+	private List<Query> updateQueries(int count) {
+		ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate, times(count)).updateMulti(queryCaptor.capture(), updateCaptor.capture(), eq(Participation.class));
+		return queryCaptor.getAllValues();
+	}
+
+	private List<Update> updateUpdates() {
+		return updateCaptor.getAllValues();
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Participation> insertedParticipations() {
+		ArgumentCaptor<List<Participation>> captor = ArgumentCaptor.forClass(List.class);
+		verify(bulkOps).insert(captor.capture());
+		return captor.getValue();
+	}
+
+	private Document set(Update update) {
+		return (Document) update.getUpdateObject().get("$set");
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Object> inValues(Object condition, String operator) {
+		return new ArrayList<>((Collection<Object>) ((Document) condition).get(operator));
+	}
+
+	private MongoBulkWriteException bulkWriteException(int code, int index) {
+		return new MongoBulkWriteException(BulkWriteResult.unacknowledged(),
+				List.of(new BulkWriteError(code, "write error", new BsonDocument(), index)),
+				null, new ServerAddress(), Set.of());
+	}
+}
@@ -0,0 +1,85 @@
+package com.PlacementPortal.Placement.Sarthi.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkPasswordHasherTests {
+
+	// Cost 4 is the BCrypt minimum and keeps these tests fast
+	private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+
+	// Names of the threads that ran encode()
+	private final Set<String> hashingThreads = ConcurrentHashMap.newKeySet();
+
+	private final BulkPasswordHasher hasher = new BulkPasswordHasher();
+
+	@BeforeEach
+	void startPool() {
+		ReflectionTestUtils.setField(hasher, "passwordEncoder", new PasswordEncoder() {
+			@Override
+			public String encode(CharSequence rawPassword) {
+				hashingThreads.add(Thread.currentThread().getName());
+				return encoder.encode(rawPassword);
+			}
+
+			@Override
+			public boolean matches(CharSequence rawPassword, String encodedPassword) {
+				return encoder.matches(rawPassword, encodedPassword);
+			}
+		});
+		ReflectionTestUtils.setField(hasher, "poolSize", 2);
+		ReflectionTestUtils.setField(hasher, "queueCapacity", 1);
+		hasher.init();
+	}
+
+	@AfterEach
+	void stopPool() {
+		hasher.shutdown();
+	}
+
+	@Test
+	void hashesOnThePoolThreads() {
+		String hash = hasher.encode("gehu@123").join();
+
+		assertThat(encoder.matches("gehu@123", hash)).isTrue();
+		assertThat(hashingThreads).allMatch(name -> name.startsWith("password-hash-"));
+		assertThat(hasher.getPoolSize()).isEqualTo(2);
+	}
+
+	@Test
+	void fullQueueMakesTheCallerHashInsteadOfFailing() {
+		List<CompletableFuture<String>> hashes = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			hashes.add(hasher.encode("password-" + i));
+		}
+
+		for (int i = 0; i < hashes.size(); i++) {
+			assertThat(encoder.matches("password-" + i, hashes.get(i).join())).isTrue();
+		}
+		// Two workers and a queue of one cannot take 20 submissions at once
+		assertThat(hashingThreads).contains(Thread.currentThread().getName());
+		assertThat(hasher.getStats())
+				.containsEntry("poolSize", 2)
+				.containsEntry("hashedTotal", 20L);
+	}
+
+	@Test
+	void everyHashIsSalted() {
+		String first = hasher.encode("gehu@123").join();
+		String second = hasher.encode("gehu@123").join();
+
+		assertThat(first).isNotEqualTo(second);
+	}
+}
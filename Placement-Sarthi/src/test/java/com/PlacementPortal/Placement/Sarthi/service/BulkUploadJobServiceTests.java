@@ -0,0 +1,216 @@
+package com.PlacementPortal.Placement.Sarthi.service;
+
+import com.PlacementPortal.Placement.Sarthi.entity.BulkUploadJob;
+import com.PlacementPortal.Placement.Sarthi.entity.BulkUploadJob.JobStatus;
+import com.PlacementPortal.Placement.Sarthi.repository.BulkUploadJobRepository;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class BulkUploadJobServiceTests {
+
+	private static final String NODE_ID = "node-a";
+
+	private BulkUploadJobRepository bulkUploadJobRepository;
+	private ExcelProcessingService excelProcessingService;
+	private GridFsTemplate gridFsTemplate;
+	private MongoTemplate mongoTemplate;
+	private BulkUploadJobService service;
+
+	@BeforeEach
+	void setUp() {
+		bulkUploadJobRepository = mock(BulkUploadJobRepository.class);
+		excelProcessingService = mock(ExcelProcessingService.class);
+		gridFsTemplate = mock(GridFsTemplate.class);
+		mongoTemplate = mock(MongoTemplate.class);
+
+		service = new BulkUploadJobService();
+		ReflectionTestUtils.setField(service, "bulkUploadJobRepository", bulkUploadJobRepository);
+		ReflectionTestUtils.setField(service, "excelProcessingService", excelProcessingService);
+		ReflectionTestUtils.setField(service, "gridFsTemplate", gridFsTemplate);
+		ReflectionTestUtils.setField(service, "mongoTemplate", mongoTemplate);
+		ReflectionTestUtils.setField(service, "jobThreads", 1);
+		ReflectionTestUtils.setField(service, "nodeId", NODE_ID);
+		ReflectionTestUtils.setField(service, "staleAfterSeconds", 120L);
+		ReflectionTestUtils.setField(service, "jobRetention", Duration.ofDays(7));
+		service.init();
+
+		when(bulkUploadJobRepository.findByStatus(JobStatus.QUEUED)).thenReturn(List.of());
+		when(mongoTemplate.find(any(Query.class), eq(BulkUploadJob.class))).thenReturn(List.of());
+	}
+
+	@Test
+	void queuedJobIsClaimedOnceWithThisNodeAsOwner() throws InterruptedException {
+		when(bulkUploadJobRepository.findByStatus(JobStatus.QUEUED)).thenReturn(List.of(job("job-1", null)));
+
+		service.recoverJobs();
+		awaitJobs();
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+		verify(mongoTemplate).findAndModify(query.capture(), update.capture(), any(FindAndModifyOptions.class), eq(BulkUploadJob.class));
+		assertThat(query.getValue().getQueryObject())
+				.containsEntry("_id", "job-1")
+				.containsEntry("status", JobStatus.QUEUED);
+		Document set = (Document) update.getValue().getUpdateObject().get("$set");
+		assertThat(set)
+				.containsEntry("status", JobStatus.RUNNING)
+				.containsEntry("owner", NODE_ID)
+				.containsKey("heartbeatAt");
+
+		// Another node won the claim, so this one leaves the job and its upload alone
+		verifyNoInteractions(gridFsTemplate, excelProcessingService);
+	}
+
+	@Test
+	void claimedJobReleasesItsUploadWhenItFails() throws InterruptedException {
+		String uploadId = new ObjectId().toHexString();
+		when(bulkUploadJobRepository.findByStatus(JobStatus.QUEUED)).thenReturn(List.of(job("job-1", uploadId)));
+		when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(BulkUploadJob.class)))
+				.thenReturn(job("job-1", uploadId));
+		when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(BulkUploadJob.class)))
+				.thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+		service.recoverJobs();
+		awaitJobs();
+
+		// The upload is missing from GridFS, so the job fails
+		ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+		verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(BulkUploadJob.class));
+		assertThat((Document) update.getValue().getUpdateObject().get("$set")).containsEntry("status", JobStatus.FAILED);
+		verify(gridFsTemplate).delete(any(Query.class));
+		assertThat(runningJobs()).isEmpty();
+	}
+
+	@Test
+	void recoveryLooksAtOwnOrphanedAndStaleRunningJobs() {
+		service.recoverJobs();
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate, times(3)).find(query.capture(), eq(BulkUploadJob.class));
+		List<List<?>> criteria = query.getAllValues().stream()
+				.<List<?>>map(q -> (List<?>) q.getQueryObject().get("$and"))
+				.toList();
+		assertThat(criteria).allSatisfy(and -> assertThat(and.get(0)).isEqualTo(new Document("status", JobStatus.RUNNING)));
+		assertThat(criteria.get(0).get(1)).isEqualTo(new Document("owner", NODE_ID));
+		assertThat(criteria.get(1).get(1)).isEqualTo(new Document("owner", new Document("$exists", false)));
+		assertThat(((Document) criteria.get(2).get(1)).get("heartbeatAt", Document.class)).containsKey("$lt");
+	}
+
+	@Test
+	void onlyTheNodeThatFailsAnInterruptedJobDeletesItsUpload() {
+		LocalDateTime heartbeat = LocalDateTime.now().minusMinutes(10);
+		BulkUploadJob won = job("job-1", new ObjectId().toHexString());
+		won.setHeartbeatAt(heartbeat);
+		BulkUploadJob lost = job("job-2", new ObjectId().toHexString());
+		lost.setHeartbeatAt(heartbeat);
+		when(mongoTemplate.find(any(Query.class), eq(BulkUploadJob.class))).thenReturn(List.of(won, lost), List.of());
+		when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(BulkUploadJob.class)))
+				.thenReturn(UpdateResult.acknowledged(1, 1L, null), UpdateResult.acknowledged(0, 0L, null));
+
+		service.recoverJobs();
+
+		ArgumentCaptor<Query> claim = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate, times(2)).updateFirst(claim.capture(), any(Update.class), eq(BulkUploadJob.class));
+		assertThat(claim.getAllValues().get(0).getQueryObject())
+				.containsEntry("_id", "job-1")
+				.containsEntry("status", JobStatus.RUNNING)
+				.containsEntry("heartbeatAt", heartbeat);
+		verify(gridFsTemplate, times(1)).delete(any(Query.class));
+	}
+
+	@Test
+	void heartbeatRefreshesOwnJobsAndNeverFailsThem() {
+		runningJobs().add("job-1");
+		BulkUploadJob running = job("job-1", new ObjectId().toHexString());
+		running.setHeartbeatAt(LocalDateTime.now().minusMinutes(10));
+		when(mongoTemplate.find(any(Query.class), eq(BulkUploadJob.class))).thenReturn(List.of(running));
+
+		service.heartbeat();
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).updateMulti(query.capture(), any(Update.class), eq(BulkUploadJob.class));
+		assertThat(query.getValue().getQueryObject()).containsEntry("owner", NODE_ID);
+		verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(BulkUploadJob.class));
+		verify(gridFsTemplate, never()).delete(any(Query.class));
+	}
+
+	@Test
+	void finishedJobsExpireAfterTheRetention() {
+		IndexOperations indexOps = mock(IndexOperations.class);
+		when(mongoTemplate.indexOps(BulkUploadJob.class)).thenReturn(indexOps);
+
+		service.ensureIndexes();
+
+		ArgumentCaptor<Index> index = ArgumentCaptor.forClass(Index.class);
+		verify(indexOps).ensureIndex(index.capture());
+		assertThat(index.getValue().getIndexKeys()).containsOnlyKeys("finishedAt");
+		assertThat(index.getValue().getIndexOptions()).containsEntry("expireAfterSeconds", Duration.ofDays(7).getSeconds());
+	}
+
+	@Test
+	void purgeKeepsTheUploadsOfUnfinishedJobs() {
+		String uploadId = new ObjectId().toHexString();
+		when(mongoTemplate.find(any(Query.class), eq(BulkUploadJob.class))).thenReturn(List.of(job("job-1", uploadId)));
+
+		service.purgeExpiredFiles();
+
+		ArgumentCaptor<Query> unfinished = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).find(unfinished.capture(), eq(BulkUploadJob.class));
+		assertThat(unfinished.getValue().getQueryObject().get("status", Document.class).get("$in", List.class))
+				.containsExactlyInAnyOrder(JobStatus.QUEUED, JobStatus.RUNNING);
+
+		ArgumentCaptor<Query> expired = ArgumentCaptor.forClass(Query.class);
+		verify(gridFsTemplate).delete(expired.capture());
+		Document files = expired.getValue().getQueryObject();
+		assertThat(files.get("uploadDate", Document.class)).containsKey("$lt");
+		assertThat(files.get("_id", Document.class).get("$nin", List.class)).containsExactly(new ObjectId(uploadId));
+	}
+
+	private BulkUploadJob job(String jobId, String uploadFileId) {
+		BulkUploadJob job = new BulkUploadJob();
+		job.setJobId(jobId);
+		job.setFileName("students.csv");
+		job.setUploadFileId(uploadFileId);
+		return job;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Set<String> runningJobs() {
+		return (Set<String>) ReflectionTestUtils.getField(service, "runningJobs");
+	}
+
+	private void awaitJobs() throws InterruptedException {
+		ExecutorService executor = (ExecutorService) ReflectionTestUtils.getField(service, "executor");
+		executor.shutdown();
+		assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+	}
+}
@@ -0,0 +1,112 @@
+package com.PlacementPortal.Placement.Sarthi.service;
+
+import com.PlacementPortal.Placement.Sarthi.entity.Event;
+import com.PlacementPortal.Placement.Sarthi.repository.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EventServiceTests {
+
+	private final EventService service = new EventService();
+
+	private EventRepository eventRepository;
+
+	@BeforeEach
+	void setUp() {
+		eventRepository = mock(EventRepository.class);
+		ReflectionTestUtils.setField(service, "eventRepository", eventRepository);
+		ReflectionTestUtils.setField(service, "searchIndexService", mock(SearchIndexService.class));
+		ReflectionTestUtils.setField(service, "maxCachedEvents", 5000L);
+		ReflectionTestUtils.setField(service, "cacheTtlSeconds", 300L);
+		service.initCache();
+	}
+
+	@Test
+	void companyKeyIsTrimmedSingleSpacedAndLowerCased() {
+		assertThat(Event.companyKey("  Tata   Consultancy\tServices ")).isEqualTo("tata consultancy services");
+		assertThat(Event.companyKey(null)).isNull();
+	}
+
+	@Test
+	void companyPrefixIsAnchoredAndEscaped() {
+		Pattern prefix = prefixPattern("a.b (c)+");
+
+		assertThat(prefix.matcher("a.b (c)+ ltd").find()).isTrue();
+		// Regex metacharacters in the name are literal
+		assertThat(prefix.matcher("axb (c)+ ltd").find()).isFalse();
+		assertThat(prefix.matcher("a.b (ccc) ltd").find()).isFalse();
+		// Anchored at the start of the key
+		assertThat(prefix.matcher("the a.b (c)+").find()).isFalse();
+	}
+
+	@Test
+	void companyPrefixEscapesBackslashesAndAnchors() {
+		Pattern prefix = prefixPattern("x\\y$^");
+
+		assertThat(prefix.matcher("x\\y$^ corp").find()).isTrue();
+		assertThat(prefix.matcher("xy").find()).isFalse();
+	}
+
+	@Test
+	void catalogueIsReadOnceAndServedFromCache() {
+		when(eventRepository.findAll()).thenReturn(List.of(event("EV1"), event("EV2")));
+
+		assertThat(service.getAllEvents()).extracting(Event::getEventId).containsExactly("EV1", "EV2");
+		assertThat(service.getEventById("EV2").getEventId()).isEqualTo("EV2");
+		assertThat(service.getEventById("EV3")).isNull();
+
+		verify(eventRepository, times(1)).findAll();
+	}
+
+	@Test
+	void writesInvalidateTheCatalogue() {
+		Event created = event("EV2");
+		when(eventRepository.findAll()).thenReturn(List.of(event("EV1"))).thenReturn(List.of(event("EV1"), created));
+		when(eventRepository.save(any(Event.class))).thenReturn(created);
+
+		assertThat(service.getAllEvents()).hasSize(1);
+		service.createEvent(created);
+
+		assertThat(service.getAllEvents()).extracting(Event::getEventId).containsExactly("EV1", "EV2");
+		verify(eventRepository, times(2)).findAll();
+	}
+
+	@Test
+	void catalogueReadBeforeAConcurrentWriteIsNotServed() {
+		AtomicLong version = (AtomicLong) ReflectionTestUtils.getField(service, "catalogueVersion");
+		when(eventRepository.findAll())
+				.thenAnswer(invocation -> {
+					// Another request writes an event and invalidates while this snapshot is being read
+					version.incrementAndGet();
+					return List.of(event("EV1"));
+				})
+				.thenReturn(List.of(event("EV1"), event("EV2")));
+
+		assertThat(service.getAllEvents()).hasSize(2);
+		assertThat(service.getAllEvents()).hasSize(2);
+		verify(eventRepository, times(2)).findAll();
+	}
+
+	private Pattern prefixPattern(String companyName) {
+		Object regex = service.companyPrefixCriteria(Event.companyKey(companyName)).getCriteriaObject().get("organizingCompanyKey");
+		return regex instanceof Pattern pattern ? pattern : Pattern.compile(regex.toString());
+	}
+
+	private Event event(String eventId) {
+		Event event = new Event();
+		event.setEventId(eventId);
+		return event;
+	}
+}
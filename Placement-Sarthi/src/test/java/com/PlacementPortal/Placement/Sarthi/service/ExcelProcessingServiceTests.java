@@ -0,0 +1,275 @@
+package com.PlacementPortal.Placement.Sarthi.service;
+
+import com.PlacementPortal.Placement.Sarthi.entity.ImportMode;
+import com.PlacementPortal.Placement.Sarthi.entity.Student;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Imports fed row by row through a mocked sheet reader: duplicate detection per chunk, one
+ * unordered bulk insert per chunk with write errors mapped back to rows, and the UPSERT diff,
+ * which only $sets the fields whose converted value differs from the stored document.
+ */
+class ExcelProcessingServiceTests {
+
+	private final ExcelProcessingService service = new ExcelProcessingService();
+
+	private MappingMongoConverter converter;
+	private MongoTemplate mongoTemplate;
+	private StudentSheetReader studentSheetReader;
+	private BulkOperations bulkOps;
+
+	@BeforeEach
+	void setUp() {
+		MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+		MongoMappingContext mappingContext = new MongoMappingContext();
+		mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+		mappingContext.afterPropertiesSet();
+
+		converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+		converter.setCustomConversions(conversions);
+		converter.afterPropertiesSet();
+
+		mongoTemplate = mock(MongoTemplate.class);
+		when(mongoTemplate.getConverter()).thenReturn(converter);
+		ReflectionTestUtils.setField(service, "mongoTemplate", mongoTemplate);
+
+		studentSheetReader = mock(StudentSheetReader.class);
+		BulkPasswordHasher bulkPasswordHasher = mock(BulkPasswordHasher.class);
+		when(bulkPasswordHasher.encode(anyString())).thenReturn(CompletableFuture.completedFuture("$2a$10$hash"));
+		PrincipalService principalService = mock(PrincipalService.class);
+		when(principalService.setPasswordHashes(anyString(), anyMap())).thenReturn(Set.of());
+		bulkOps = mock(BulkOperations.class);
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Student.class)).thenReturn(bulkOps);
+
+		ReflectionTestUtils.setField(service, "studentSheetReader", studentSheetReader);
+		ReflectionTestUtils.setField(service, "bulkPasswordHasher", bulkPasswordHasher);
+		ReflectionTestUtils.setField(service, "searchIndexService", mock(SearchIndexService.class));
+		ReflectionTestUtils.setField(service, "principalService", principalService);
+		ReflectionTestUtils.setField(service, "chunkSize", 2);
+	}
+
+	@Test
+	void repeatedAdmissionNumberInTheFileIsReportedAgainstItsFirstRow() throws Exception {
+		Map<String, Object> result = upload(row("1001"), row("1002"), row("1001"));
+
+		assertThat(result).containsEntry("successfulCount", 2);
+		assertThat(errors(result)).singleElement().satisfies(error -> assertThat(error)
+				.containsEntry("row", "4")
+				.containsEntry("admissionNumber", "Duplicate admission number in file (first seen at row 2)"));
+	}
+
+	@Test
+	void existingAdmissionNumbersAreLookedUpOncePerChunk() throws Exception {
+		Student existing = new Student();
+		existing.setStudentAdmissionNumber("1002");
+		when(mongoTemplate.find(any(Query.class), eq(Student.class))).thenReturn(List.of(existing), List.of());
+
+		Map<String, Object> result = upload(row("1001"), row("1002"), row("1003"));
+
+		// Two chunks of at most two rows, one $in query each
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate, times(2)).find(query.capture(), eq(Student.class));
+		assertThat(inValues(query.getAllValues().get(0))).containsExactly("1001", "1002");
+		assertThat(inValues(query.getAllValues().get(1))).containsExactly("1003");
+
+		assertThat(result).containsEntry("successfulCount", 2);
+		assertThat(errors(result)).singleElement().satisfies(error -> assertThat(error)
+				.containsEntry("row", "3")
+				.containsEntry("admissionNumber", "Admission number already exists"));
+	}
+
+	@Test
+	void eachChunkIsInsertedWithOneUnorderedBulkWrite() throws Exception {
+		String[] blankBacklogs = row("1003");
+		blankBacklogs[15] = null;
+
+		Map<String, Object> result = upload(row("1001"), row("1002"), blankBacklogs);
+
+		ArgumentCaptor<List<Student>> inserted = insertedChunks(2);
+		assertThat(inserted.getAllValues().get(0)).extracting(Student::getStudentAdmissionNumber).containsExactly("1001", "1002");
+		assertThat(inserted.getAllValues().get(1)).singleElement().satisfies(student -> {
+			assertThat(student.getBackLogsCount()).isZero();
+			assertThat(student.getPassword()).isEqualTo("$2a$10$hash");
+		});
+		assertThat(result).containsEntry("successfulCount", 3).containsEntry("errorCount", 0);
+	}
+
+	@Test
+	void bulkWriteErrorsAreReportedAgainstTheirRows() throws Exception {
+		when(bulkOps.execute()).thenThrow(new BulkOperationException("write failed", bulkWriteException(
+				new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 0),
+				new BulkWriteError(121, "Document failed validation", new BsonDocument(), 1))));
+
+		Map<String, Object> result = upload(row("1001"), row("1002"));
+
+		assertThat(result).containsEntry("successfulCount", 0);
+		assertThat(errors(result)).satisfiesExactly(
+				error -> assertThat(error)
+						.containsEntry("row", "2")
+						.containsEntry("admissionNumber", "Admission number already exists"),
+				error -> assertThat(error)
+						.containsEntry("row", "3")
+						.containsEntry("general", "Error saving student: Document failed validation"));
+	}
+
+	@Test
+	void identicalRowIsUnchanged() {
+		Document stored = store(row());
+
+		assertThat(service.changedFields(fromRow(row()), stored)).isNull();
+	}
+
+	@Test
+	void onlyChangedFieldsAreSet() {
+		Document stored = store(row());
+		String[] values = row();
+		values[12] = "9.1";
+		values[7] = "9999999999";
+
+		assertThat(setFields(service.changedFields(fromRow(values), stored)))
+				.containsOnlyKeys("cgpa", "mobileNo")
+				.containsEntry("cgpa", 9.1)
+				.containsEntry("mobileNo", "9999999999");
+	}
+
+	@Test
+	void blankCellsKeepStoredValues() {
+		Document stored = store(row());
+		String[] values = row();
+		// The sheet reader turns blank cells into nulls
+		values[7] = null;
+		values[12] = null;
+		values[15] = null;
+		values[16] = null;
+
+		assertThat(service.changedFields(fromRow(values), stored)).isNull();
+	}
+
+	@Test
+	void valueForFieldMissingFromStoredDocumentIsSet() {
+		Document stored = store(row());
+		stored.remove("address");
+
+		assertThat(setFields(service.changedFields(fromRow(row()), stored)))
+				.containsOnlyKeys("address")
+				.containsEntry("address", "12 Rajpur Road");
+	}
+
+	@Test
+	void storedOnlyFieldsAreIgnored() {
+		Document stored = store(row());
+		stored.put("password", "$2a$10$legacyhash");
+		stored.put("lastLogin", LocalDateTime.now());
+
+		assertThat(service.changedFields(fromRow(row()), stored)).isNull();
+	}
+
+	private Map<String, Object> upload(String[]... rows) throws Exception {
+		doAnswer(invocation -> {
+			StudentSheetReader.RowCallback callback = invocation.getArgument(2);
+			callback.onRow(1, new String[]{"student_admission_number*", "student_first_name*", "student_last_name*"});
+			for (int i = 0; i < rows.length; i++) {
+				callback.onRow(i + 2, rows[i]);
+			}
+			return null;
+		}).when(studentSheetReader).read(any(), anyString(), any());
+
+		Map<String, Object> result = service.processBulkUpload(
+				new MockMultipartFile("file", "students.csv", "text/csv", new byte[0]), ImportMode.INSERT);
+		assertThat(result).containsEntry("success", true);
+		return result;
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Map<String, String>> errors(Map<String, Object> result) {
+		return (List<Map<String, String>>) result.get("errors");
+	}
+
+	@SuppressWarnings("unchecked")
+	private ArgumentCaptor<List<Student>> insertedChunks(int chunks) {
+		ArgumentCaptor<List<Student>> inserted = ArgumentCaptor.forClass(List.class);
+		verify(bulkOps, times(chunks)).insert(inserted.capture());
+		verify(bulkOps, times(chunks)).execute();
+		return inserted;
+	}
+
+	private Collection<Object> inValues(Query query) {
+		@SuppressWarnings("unchecked")
+		Collection<Object> values = (Collection<Object>) ((Document) query.getQueryObject().get("_id")).get("$in");
+		return values;
+	}
+
+	private MongoBulkWriteException bulkWriteException(BulkWriteError... errors) {
+		return new MongoBulkWriteException(BulkWriteResult.unacknowledged(), List.of(errors), null,
+				new ServerAddress(), Set.of());
+	}
+
+	private String[] row(String admissionNumber) {
+		String[] values = row();
+		values[0] = admissionNumber;
+		return values;
+	}
+
+	private String[] row() {
+		return new String[]{"21011001", "Asha", "Rawat", "Mohan Rawat", "Geeta Rawat", "2003-04-15", "Female",
+				"9876543210", "asha@example.com", "asha@college.edu", "CSE", "2025", "8.4", "91.2", "88.0", "3",
+				"12 Rajpur Road", null, null, "B.Tech", "2101100", "EN2101100"};
+	}
+
+	private Student fromRow(String[] values) {
+		Map<String, String> rowErrors = new HashMap<>();
+		Student student = service.createStudentFromRow(values, rowErrors);
+		assertThat(rowErrors).isEmpty();
+		return student;
+	}
+
+	// The document as an earlier import would have stored it
+	private Document store(String[] values) {
+		Document stored = new Document();
+		converter.write(fromRow(values), stored);
+		return stored;
+	}
+
+	private Document setFields(Update update) {
+		assertThat(update).isNotNull();
+		return (Document) update.getUpdateObject().get("$set");
+	}
+}
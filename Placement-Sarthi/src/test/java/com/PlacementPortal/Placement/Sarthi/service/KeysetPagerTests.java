@@ -0,0 +1,61 @@
+package com.PlacementPortal.Placement.Sarthi.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetPagerTests {
+
+	private final KeysetPager pager = new KeysetPager();
+
+	@Test
+	void cursorRoundTripsTheLastId() {
+		String cursor = pager.encodeCursor("students", "21011001");
+
+		assertThat(cursor).doesNotContain("21011001").doesNotContain("=");
+		assertThat(pager.decodeCursor("students", cursor)).isEqualTo("21011001");
+	}
+
+	@Test
+	void idsWithSeparatorsAndNonAsciiCharactersRoundTrip() {
+		String id = "company:Tata/Élan ü";
+
+		assertThat(pager.decodeCursor("companies", pager.encodeCursor("companies", id))).isEqualTo(id);
+	}
+
+	@Test
+	void cursorFromAnotherCollectionIsRejected() {
+		String cursor = pager.encodeCursor("students", "21011001");
+
+		assertThatThrownBy(() -> pager.decodeCursor("events", cursor))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("Invalid cursor");
+	}
+
+	@Test
+	void cursorThatIsNotBase64IsRejected() {
+		assertThatThrownBy(() -> pager.decodeCursor("students", "not a cursor!"))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void cursorWithInvalidUtf8IsRejected() {
+		String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString(new byte[]{'s', (byte) 0xC3, (byte) 0x28});
+
+		assertThatThrownBy(() -> pager.decodeCursor("students", cursor))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void handMadeCursorWithoutCollectionOrIdIsRejected() {
+		String bareId = Base64.getUrlEncoder().withoutPadding().encodeToString("21011001".getBytes(StandardCharsets.UTF_8));
+		String emptyId = Base64.getUrlEncoder().withoutPadding().encodeToString("students:".getBytes(StandardCharsets.UTF_8));
+
+		assertThatThrownBy(() -> pager.decodeCursor("students", bareId)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> pager.decodeCursor("students", emptyId)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,113 @@
+package com.PlacementPortal.Placement.Sarthi.service;
+
+import com.PlacementPortal.Placement.Sarthi.entity.Company;
+import com.PlacementPortal.Placement.Sarthi.entity.Event;
+import com.PlacementPortal.Placement.Sarthi.entity.Student;
+import org.apache.lucene.index.IndexWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SearchIndexServiceTests {
+
+	@TempDir
+	Path indexDirectory;
+
+	private MongoTemplate mongoTemplate;
+	private SearchIndexService service;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		mongoTemplate = mock(MongoTemplate.class);
+		when(mongoTemplate.stream(any(Query.class), eq(Event.class))).thenAnswer(invocation -> Stream.empty());
+		when(mongoTemplate.stream(any(Query.class), eq(Company.class))).thenAnswer(invocation -> Stream.empty());
+		service = open();
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		service.close();
+	}
+
+	@Test
+	void failedRebuildKeepsThePreviousIndex() throws IOException {
+		when(mongoTemplate.stream(any(Query.class), eq(Student.class)))
+				.thenAnswer(invocation -> Stream.of(student("1001", "Asha")));
+		service.rebuild();
+
+		// MongoDB goes away halfway through the next rebuild, after deleteAll()
+		when(mongoTemplate.stream(any(Query.class), eq(Student.class))).thenAnswer(invocation -> Stream.of(
+				student("1002", "Ravi"), null).map(student -> {
+					if (student == null) {
+						throw new DataAccessResourceFailureException("connection reset");
+					}
+					return student;
+				}));
+
+		assertThatThrownBy(() -> service.rebuild()).isInstanceOf(DataAccessResourceFailureException.class);
+		assertThat(ids("asha")).containsExactly("1001");
+		assertThat(ids("ravi")).isEmpty();
+	}
+
+	@Test
+	void indexAcceptsWritesAfterARolledBackRebuild() throws IOException {
+		when(mongoTemplate.stream(any(Query.class), eq(Student.class)))
+				.thenThrow(new DataAccessResourceFailureException("connection refused"));
+		assertThatThrownBy(() -> service.rebuild()).isInstanceOf(DataAccessResourceFailureException.class);
+
+		service.indexStudent(student("1003", "Meera"));
+
+		assertThat(ids("meera")).containsExactly("1003");
+	}
+
+	@Test
+	void scheduledCommitPersistsIncrementalWrites() throws IOException {
+		service.indexStudent(student("1004", "Kiran"));
+		service.commitPending();
+
+		// A crash loses the writer without close(); a new one only sees what was committed
+		IndexWriter writer = (IndexWriter) ReflectionTestUtils.getField(service, "writer");
+		writer.rollback();
+		service = open();
+
+		assertThat(ids("kiran")).containsExactly("1004");
+	}
+
+	private SearchIndexService open() throws IOException {
+		SearchIndexService searchIndexService = new SearchIndexService();
+		ReflectionTestUtils.setField(searchIndexService, "mongoTemplate", mongoTemplate);
+		ReflectionTestUtils.setField(searchIndexService, "indexDirectory", indexDirectory.toString());
+		searchIndexService.init();
+		return searchIndexService;
+	}
+
+	private List<Object> ids(String input) throws IOException {
+		return service.search(input, SearchIndexService.TYPE_STUDENT, 10).stream().map(result -> result.get("id")).toList();
+	}
+
+	private Student student(String admissionNumber, String firstName) {
+		Student student = new Student();
+		student.setStudentAdmissionNumber(admissionNumber);
+		student.setStudentFirstName(firstName);
+		student.setStudentLastName("Rawat");
+		student.setDepartment("CSE");
+		return student;
+	}
+}
@@ -0,0 +1,88 @@
+package com.PlacementPortal.Placement.Sarthi.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StudentSheetReaderTests {
+
+	private final StudentSheetReader reader = new StudentSheetReader();
+
+	private record Row(int rowNum, String[] values) {
+	}
+
+	@Test
+	void quotedFieldsKeepEmbeddedCommasAndEscapedQuotes() throws IOException {
+		List<Row> rows = readCsv("1001,\"Doe, Jane\",\"He said \"\"hi\"\"\",\"\"\"\"\n");
+
+		assertThat(rows).hasSize(1);
+		assertThat(rows.get(0).values()[0]).isEqualTo("1001");
+		assertThat(rows.get(0).values()[1]).isEqualTo("Doe, Jane");
+		assertThat(rows.get(0).values()[2]).isEqualTo("He said \"hi\"");
+		assertThat(rows.get(0).values()[3]).isEqualTo("\"");
+	}
+
+	@Test
+	void crlfEndsRowsWithoutPhantomRows() throws IOException {
+		List<Row> rows = readCsv("a,b\r\nc,d\r\n\r\ne,f");
+
+		assertThat(rows).extracting(Row::rowNum).containsExactly(1, 2, 4);
+		assertThat(rows.get(1).values()[0]).isEqualTo("c");
+		assertThat(rows.get(1).values()[1]).isEqualTo("d");
+		// Last row without a trailing line break
+		assertThat(rows.get(2).values()[1]).isEqualTo("f");
+	}
+
+	@Test
+	void lineBreaksInsideQuotesStayInTheField() throws IOException {
+		List<Row> rows = readCsv("x,\"line1\r\nline2\",y\r\nz\n");
+
+		assertThat(rows).hasSize(2);
+		assertThat(rows.get(0).values()[1]).isEqualTo("line1\r\nline2");
+		assertThat(rows.get(0).values()[2]).isEqualTo("y");
+		assertThat(rows.get(1).rowNum()).isEqualTo(2);
+		assertThat(rows.get(1).values()[0]).isEqualTo("z");
+	}
+
+	@Test
+	void byteOrderMarkIsSkippedBlankCellsAreNullAndValuesAreTrimmed() throws IOException {
+		List<Row> rows = readCsv("\uFEFF 1001 ,,  ,\"\"\n");
+
+		String[] values = rows.get(0).values();
+		assertThat(values).hasSize(StudentSheetReader.COLUMN_COUNT);
+		assertThat(values[0]).isEqualTo("1001");
+		assertThat(values[1]).isNull();
+		assertThat(values[2]).isNull();
+		assertThat(values[3]).isNull();
+	}
+
+	@Test
+	void escapedQuoteSplitAcrossReadBuffers() throws IOException {
+		// The doubled quote straddles the 16K read buffer
+		String longText = "a".repeat(16 * 1024 - 2);
+		List<Row> rows = readCsv("\"" + longText + "\"\"b\",c\n");
+
+		assertThat(rows.get(0).values()[0]).isEqualTo(longText + "\"b");
+		assertThat(rows.get(0).values()[1]).isEqualTo("c");
+	}
+
+	@Test
+	void legacyXlsIsRejected() {
+		assertThatThrownBy(() -> reader.read(new ByteArrayInputStream(new byte[0]), "students.xls", (rowNum, values) -> {
+		})).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private List<Row> readCsv(String content) throws IOException {
+		List<Row> rows = new ArrayList<>();
+		reader.read(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), "students.csv",
+				(rowNum, values) -> rows.add(new Row(rowNum, values)));
+		return rows;
+	}
+}